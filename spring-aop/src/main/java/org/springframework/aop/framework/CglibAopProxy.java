@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -982,6 +982,15 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 		@Override
 		public byte[] generate(ClassGenerator cg) throws Exception {
+			long startTime = System.nanoTime();
+			byte[] bytes = generateWithClassLoader(cg);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Generated CGLIB proxy class in " + (System.nanoTime() - startTime) / 1000 + " microseconds");
+			}
+			return bytes;
+		}
+
+		private byte[] generateWithClassLoader(ClassGenerator cg) throws Exception {
 			if (this.classLoader == null) {
 				return super.generate(cg);
 			}
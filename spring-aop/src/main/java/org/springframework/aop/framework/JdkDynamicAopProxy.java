@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,10 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -92,6 +95,14 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Fixed interceptor chains per proxied method, only populated for a frozen
+	 * configuration with a static target (analogous to the fixed chain callbacks
+	 * in {@link CglibAopProxy}). Avoids the chain cache lookup on every call.
+	 */
+	@Nullable
+	private transient volatile Map<Method, List<Object>> fixedChainMap = Collections.emptyMap();
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -120,6 +131,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		if (this.advised.isFrozen() && this.advised.getTargetSource().isStatic()) {
+			this.fixedChainMap = buildFixedChainMap(proxiedInterfaces);
+		}
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
 	}
 
@@ -146,6 +160,23 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Determine the fixed interceptor chain for each method on the supplied
+	 * set of interfaces, against the static target class of the frozen config.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 */
+	private Map<Method, List<Object>> buildFixedChainMap(Class<?>[] proxiedInterfaces) {
+		Class<?> targetClass = this.advised.getTargetClass();
+		Map<Method, List<Object>> fixedChains = new HashMap<>();
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			for (Method method : proxiedInterface.getMethods()) {
+				fixedChains.put(method, this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
+			}
+		}
+		return fixedChains;
+	}
+
+
 	/**
 	 * Implementation of {@code InvocationHandler.invoke}.
 	 * <p>Callers will see exactly the exception thrown by the target,
@@ -193,8 +224,12 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			target = targetSource.getTarget();
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
-			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			// Get the interception chain for this method: fixed for a frozen static config.
+			Map<Method, List<Object>> fixedChains = this.fixedChainMap;
+			List<Object> chain = (fixedChains != null ? fixedChains.get(method) : null);
+			if (chain == null) {
+				chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			}
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -122,8 +122,15 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 			List<Advisor> candidateAdvisors, Class<?> beanClass, String beanName) {
 
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
+		long startTime = (logger.isTraceEnabled() ? System.nanoTime() : 0);
 		try {
-			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
+			List<Advisor> eligibleAdvisors = AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Matched " + eligibleAdvisors.size() + " of " + candidateAdvisors.size() +
+						" candidate Advisors for bean '" + beanName + "' in " +
+						(System.nanoTime() - startTime) / 1000 + " microseconds");
+			}
+			return eligibleAdvisors;
 		}
 		finally {
 			ProxyCreationContext.setCurrentProxiedBeanName(null);
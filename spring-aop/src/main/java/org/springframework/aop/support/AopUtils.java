@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -225,36 +226,86 @@ public abstract class AopUtils {
 		if (!pc.getClassFilter().matches(targetClass)) {
 			return false;
 		}
+		return canApply(pc.getMethodMatcher(), null, targetClass, hasIntroductions);
+	}
+
+	/**
+	 * Can the given method matcher apply to any of the candidate methods?
+	 * @param methodMatcher the method matcher to check
+	 * @param candidateMethods the pre-determined candidate methods for the given
+	 * class, or {@code null} to introspect them on demand
+	 * @param targetClass the class to test
+	 * @param hasIntroductions whether or not the advisor chain
+	 * for this bean includes any introductions
+	 * @return whether the method matcher can apply on any method
+	 */
+	private static boolean canApply(MethodMatcher methodMatcher, @Nullable Method[] candidateMethods,
+			Class<?> targetClass, boolean hasIntroductions) {
 
-		MethodMatcher methodMatcher = pc.getMethodMatcher();
 		if (methodMatcher == MethodMatcher.TRUE) {
 			// No need to iterate the methods if we're matching any method anyway...
 			return true;
 		}
 
+		if (candidateMethods != null) {
+			return matchesAnyMethod(methodMatcher, candidateMethods, targetClass, hasIntroductions);
+		}
+		// Introspect class by class, stopping at the first matching method
+		for (Class<?> clazz : getCandidateClasses(targetClass)) {
+			Method[] methods = ReflectionUtils.getAllDeclaredMethods(clazz);
+			if (matchesAnyMethod(methodMatcher, methods, targetClass, hasIntroductions)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean matchesAnyMethod(MethodMatcher methodMatcher, Method[] methods,
+			Class<?> targetClass, boolean hasIntroductions) {
+
 		IntroductionAwareMethodMatcher introductionAwareMethodMatcher = null;
 		if (methodMatcher instanceof IntroductionAwareMethodMatcher) {
 			introductionAwareMethodMatcher = (IntroductionAwareMethodMatcher) methodMatcher;
 		}
 
+		for (Method method : methods) {
+			if (introductionAwareMethodMatcher != null ?
+					introductionAwareMethodMatcher.matches(method, targetClass, hasIntroductions) :
+					methodMatcher.matches(method, targetClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determine the classes whose methods a method matcher needs to be checked
+	 * against for the given class: the user class and all of its interfaces.
+	 * @param targetClass the class to introspect
+	 * @return the candidate classes (never {@code null})
+	 */
+	private static Set<Class<?>> getCandidateClasses(Class<?> targetClass) {
 		Set<Class<?>> classes = new LinkedHashSet<>();
 		if (!Proxy.isProxyClass(targetClass)) {
 			classes.add(ClassUtils.getUserClass(targetClass));
 		}
 		classes.addAll(ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+		return classes;
+	}
 
-		for (Class<?> clazz : classes) {
-			Method[] methods = ReflectionUtils.getAllDeclaredMethods(clazz);
-			for (Method method : methods) {
-				if (introductionAwareMethodMatcher != null ?
-						introductionAwareMethodMatcher.matches(method, targetClass, hasIntroductions) :
-						methodMatcher.matches(method, targetClass)) {
-					return true;
-				}
-			}
+	/**
+	 * Determine the methods that a method matcher needs to be checked against
+	 * for the given class: all methods declared on the user class and on
+	 * its interfaces.
+	 * @param targetClass the class to introspect
+	 * @return the candidate methods (never {@code null})
+	 */
+	private static Method[] getCandidateMethods(Class<?> targetClass) {
+		List<Method> methods = new ArrayList<>();
+		for (Class<?> clazz : getCandidateClasses(targetClass)) {
+			Collections.addAll(methods, ReflectionUtils.getAllDeclaredMethods(clazz));
 		}
-
-		return false;
+		return methods.toArray(new Method[0]);
 	}
 
 	/**
@@ -312,12 +363,27 @@ public abstract class AopUtils {
 			}
 		}
 		boolean hasIntroductions = !eligibleAdvisors.isEmpty();
+		// Candidate methods are introspected once for all advisors, and only
+		// if any advisor passes its (cheap) class-level filter at all.
+		Method[] candidateMethods = null;
 		for (Advisor candidate : candidateAdvisors) {
 			if (candidate instanceof IntroductionAdvisor) {
 				// already processed
 				continue;
 			}
-			if (canApply(candidate, clazz, hasIntroductions)) {
+			if (candidate instanceof PointcutAdvisor) {
+				Pointcut pc = ((PointcutAdvisor) candidate).getPointcut();
+				if (!pc.getClassFilter().matches(clazz)) {
+					continue;
+				}
+				if (candidateMethods == null && pc.getMethodMatcher() != MethodMatcher.TRUE) {
+					candidateMethods = getCandidateMethods(clazz);
+				}
+				if (canApply(pc.getMethodMatcher(), candidateMethods, clazz, hasIntroductions)) {
+					eligibleAdvisors.add(candidate);
+				}
+			}
+			else if (canApply(candidate, clazz, hasIntroductions)) {
 				eligibleAdvisors.add(candidate);
 			}
 		}
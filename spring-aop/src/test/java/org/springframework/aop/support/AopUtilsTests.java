@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,13 @@
 package org.springframework.aop.support;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 
+import org.springframework.aop.Advisor;
 import org.springframework.aop.ClassFilter;
 import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
@@ -72,6 +76,28 @@ public class AopUtilsTests {
 		assertTrue(AopUtils.canApply(pc, Object.class));
 	}
 
+	@Test
+	public void testFindAdvisorsThatCanApply() {
+		class TestPointcut extends StaticMethodMatcherPointcut {
+			@Override
+			public boolean matches(Method method, @Nullable Class<?> clazz) {
+				return method.getName().equals("getAge");
+			}
+		}
+
+		Advisor matching = new DefaultPointcutAdvisor(new TestPointcut(), new NopInterceptor());
+		TestPointcut filtered = new TestPointcut();
+		filtered.setClassFilter(new RootClassFilter(String.class));
+		Advisor nonMatching = new DefaultPointcutAdvisor(filtered, new NopInterceptor());
+		Advisor always = new DefaultPointcutAdvisor(new NopInterceptor());
+
+		List<Advisor> advisors = AopUtils.findAdvisorsThatCanApply(
+				Arrays.asList(matching, nonMatching, always), TestBean.class);
+		assertEquals(Arrays.asList(matching, always), advisors);
+		assertEquals(Collections.singletonList(always),
+				AopUtils.findAdvisorsThatCanApply(Arrays.asList(matching, nonMatching, always), Object.class));
+	}
+
 	/**
 	 * Test that when we serialize and deserialize various canonical instances
 	 * of AOP classes, they return the same instance, not a new instance
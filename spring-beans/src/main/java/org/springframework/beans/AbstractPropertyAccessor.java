@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,8 @@ public abstract class AbstractPropertyAccessor extends TypeConverterSupport impl
 
 	private boolean autoGrowNestedPaths = false;
 
+	private boolean suppressNotWritablePropertyException = false;
+
 
 	@Override
 	public void setExtractOldValueForEditor(boolean extractOldValueForEditor) {
@@ -62,6 +64,15 @@ public abstract class AbstractPropertyAccessor extends TypeConverterSupport impl
 	}
 
 
+	/**
+	 * Whether a {@link NotWritablePropertyException} would be ignored anyway,
+	 * i.e. whether property values are currently being set with "ignoreUnknown".
+	 */
+	boolean isSuppressNotWritablePropertyException() {
+		return this.suppressNotWritablePropertyException;
+	}
+
+
 	@Override
 	public void setPropertyValue(PropertyValue pv) throws BeansException {
 		setPropertyValue(pv.getName(), pv.getValue());
@@ -89,32 +100,40 @@ public abstract class AbstractPropertyAccessor extends TypeConverterSupport impl
 		List<PropertyAccessException> propertyAccessExceptions = null;
 		List<PropertyValue> propertyValues = (pvs instanceof MutablePropertyValues ?
 				((MutablePropertyValues) pvs).getPropertyValueList() : Arrays.asList(pvs.getPropertyValues()));
-		for (PropertyValue pv : propertyValues) {
-			try {
-				// This method may throw any BeansException, which won't be caught
+
+		boolean previousSuppressNotWritablePropertyException = this.suppressNotWritablePropertyException;
+		this.suppressNotWritablePropertyException = ignoreUnknown;
+		try {
+			for (PropertyValue pv : propertyValues) {
+				// setPropertyValue may throw any BeansException, which won't be caught
 				// here, if there is a critical failure such as no matching field.
 				// We can attempt to deal only with less serious exceptions.
-				setPropertyValue(pv);
-			}
-			catch (NotWritablePropertyException ex) {
-				if (!ignoreUnknown) {
-					throw ex;
+				try {
+					setPropertyValue(pv);
 				}
-				// Otherwise, just ignore it and continue...
-			}
-			catch (NullValueInNestedPathException ex) {
-				if (!ignoreInvalid) {
-					throw ex;
+				catch (NotWritablePropertyException ex) {
+					if (!ignoreUnknown) {
+						throw ex;
+					}
+					// Otherwise, just ignore it and continue...
 				}
-				// Otherwise, just ignore it and continue...
-			}
-			catch (PropertyAccessException ex) {
-				if (propertyAccessExceptions == null) {
-					propertyAccessExceptions = new ArrayList<>();
+				catch (NullValueInNestedPathException ex) {
+					if (!ignoreInvalid) {
+						throw ex;
+					}
+					// Otherwise, just ignore it and continue...
+				}
+				catch (PropertyAccessException ex) {
+					if (propertyAccessExceptions == null) {
+						propertyAccessExceptions = new ArrayList<>();
+					}
+					propertyAccessExceptions.add(ex);
 				}
-				propertyAccessExceptions.add(ex);
 			}
 		}
+		finally {
+			this.suppressNotWritablePropertyException = previousSuppressNotWritablePropertyException;
+		}
 
 		// If we encountered individual exceptions, throw the composite exception.
 		if (propertyAccessExceptions != null) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -206,17 +206,21 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	 */
 	@Nullable
 	public Object convertForProperty(@Nullable Object value, String propertyName) throws TypeMismatchException {
-		CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
-		PropertyDescriptor pd = cachedIntrospectionResults.getPropertyDescriptor(propertyName);
+		PropertyDescriptor pd = getCachedIntrospectionResults().getPropertyDescriptor(propertyName);
 		if (pd == null) {
 			throw new InvalidPropertyException(getRootClass(), getNestedPath() + propertyName,
 					"No property '" + propertyName + "' found");
 		}
+		return convertForProperty(propertyName, null, value, typeDescriptor(pd));
+	}
+
+	private TypeDescriptor typeDescriptor(PropertyDescriptor pd) {
+		CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
 		TypeDescriptor td = cachedIntrospectionResults.getTypeDescriptor(pd);
 		if (td == null) {
 			td = cachedIntrospectionResults.addTypeDescriptor(pd, new TypeDescriptor(property(pd)));
 		}
-		return convertForProperty(propertyName, null, value, td);
+		return td;
 	}
 
 	private Property property(PropertyDescriptor pd) {
@@ -277,7 +281,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public TypeDescriptor toTypeDescriptor() {
-			return new TypeDescriptor(property(this.pd));
+			return typeDescriptor(this.pd);
 		}
 
 		@Override
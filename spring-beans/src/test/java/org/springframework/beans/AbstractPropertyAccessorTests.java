@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -1587,6 +1587,20 @@ public abstract class AbstractPropertyAccessorTests {
 		}
 	}
 
+	@Test
+	public void setPropertyValuesIgnoresUnknownOnRequest() {
+		TestBean target = new TestBean();
+		MutablePropertyValues pvs = new MutablePropertyValues();
+		pvs.addPropertyValue(new PropertyValue("unknown", "value"));
+		pvs.addPropertyValue(new PropertyValue("name", "rod"));
+		AbstractPropertyAccessor accessor = createAccessor(target);
+		accessor.setPropertyValues(pvs, true);
+		assertEquals("rod", target.getName());
+
+		thrown.expect(NotWritablePropertyException.class);
+		accessor.setPropertyValue("unknown", "value");
+	}
+
 	@Test
 	public void getAndSetIndexedProperties() {
 		IndexedTestBean target = new IndexedTestBean();
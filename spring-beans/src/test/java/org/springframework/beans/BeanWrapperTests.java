@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.beans;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -72,6 +73,41 @@ public class BeanWrapperTests extends AbstractPropertyAccessorTests {
 		assertEquals("tom", accessor.getPropertyValue("aliasedName"));
 	}
 
+	@Test
+	public void setPropertyValuesIgnoringUnknownCreatesNoNotWritablePropertyException() {
+		TestBean target = new TestBean();
+		AtomicInteger exceptionCount = new AtomicInteger();
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target) {
+			@Override
+			protected NotWritablePropertyException createNotWritablePropertyException(String propertyName) {
+				exceptionCount.incrementAndGet();
+				return super.createNotWritablePropertyException(propertyName);
+			}
+		};
+		MutablePropertyValues pvs = new MutablePropertyValues();
+		pvs.addPropertyValue(new PropertyValue("unknown", "value"));
+		pvs.addPropertyValue(new PropertyValue("name", "rod"));
+
+		accessor.setPropertyValues(pvs, true);
+		assertEquals("rod", target.getName());
+		assertEquals(0, exceptionCount.get());
+
+		try {
+			accessor.setPropertyValues(pvs, false);
+			fail("Should have thrown NotWritablePropertyException");
+		}
+		catch (NotWritablePropertyException ex) {
+			assertEquals(1, exceptionCount.get());
+		}
+	}
+
+	@Test
+	public void propertyTypeDescriptorIsCached() {
+		BeanWrapper accessor = createAccessor(new TestBean());
+		BeanWrapper otherAccessor = createAccessor(new TestBean());
+		assertSame(accessor.getPropertyTypeDescriptor("name"), otherAccessor.getPropertyTypeDescriptor("name"));
+	}
+
 	@Test
 	public void setValidAndInvalidPropertyValuesShouldContainExceptionDetails() {
 		TestBean target = new TestBean();
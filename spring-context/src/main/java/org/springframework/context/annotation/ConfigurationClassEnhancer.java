@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,28 @@
 
 package org.springframework.context.annotation;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.aop.scope.ScopedProxyFactoryBean;
+import org.springframework.asm.ClassReader;
 import org.springframework.asm.Type;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
@@ -47,11 +59,17 @@ import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.cglib.proxy.NoOp;
 import org.springframework.cglib.transform.ClassEmitterTransformer;
 import org.springframework.cglib.transform.TransformingClassGenerator;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
 import org.springframework.lang.Nullable;
 import org.springframework.objenesis.ObjenesisException;
 import org.springframework.objenesis.SpringObjenesis;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 
@@ -72,6 +90,19 @@ import org.springframework.util.ReflectionUtils;
  */
 class ConfigurationClassEnhancer {
 
+	/**
+	 * System property that instructs Spring to persist the bytecode of generated
+	 * {@code @Configuration} subclasses in the given directory:
+	 * "spring.cglib.cacheDirectory". Subsequent runs define the cached bytecode
+	 * instead of generating it again, as long as the configuration class, its
+	 * superclasses and interfaces, the annotation types declared on them and
+	 * their methods, as well as the Spring version are unchanged. Cache entries
+	 * that fail verification or cannot be defined are discarded and regenerated.
+	 * <p>The default is no persistent cache. Generated classes are cached per
+	 * ClassLoader in any case, across application context restarts.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.cglib.cacheDirectory";
+
 	// The callbacks to use. Note that these callbacks must be stateless.
 	private static final Callback[] CALLBACKS = new Callback[] {
 			new BeanMethodInterceptor(),
@@ -88,6 +119,36 @@ class ConfigurationClassEnhancer {
 
 	private static final SpringObjenesis objenesis = new SpringObjenesis();
 
+	private static final Map<Class<?>, String> cacheKeys = new ConcurrentReferenceHashMap<>();
+
+	private static final String CACHE_FILE_SUFFIX = ".cglib";
+
+	private static final byte[] CACHE_FILE_HEADER = "SpringCGLIBCache/1:".getBytes(StandardCharsets.US_ASCII);
+
+	private static final int CACHE_FILE_CHECKSUM_LENGTH = 32;
+
+
+	@Nullable
+	private final String cacheDirectory;
+
+
+	/**
+	 * Create a new {@code ConfigurationClassEnhancer}, using the
+	 * {@link #CACHE_DIRECTORY_PROPERTY_NAME cache directory} if specified.
+	 */
+	public ConfigurationClassEnhancer() {
+		this(SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME));
+	}
+
+	/**
+	 * Create a new {@code ConfigurationClassEnhancer} with the given cache directory.
+	 * @param cacheDirectory the directory to persist generated bytecode in,
+	 * or {@code null} for none
+	 */
+	ConfigurationClassEnhancer(@Nullable String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
 
 	/**
 	 * Loads the specified class and generates a CGLIB subclass of it equipped with
@@ -106,7 +167,26 @@ class ConfigurationClassEnhancer {
 			}
 			return configClass;
 		}
-		Class<?> enhancedClass = createClass(newEnhancer(configClass, classLoader));
+		Class<?> enhancedClass;
+		try {
+			enhancedClass = createClass(newEnhancer(configClass, classLoader));
+		}
+		catch (RuntimeException | LinkageError ex) {
+			// A cache entry that passed verification may still fail to be defined:
+			// discard it and generate the subclass from scratch.
+			File cacheFile = getCacheFile(configClass);
+			if (cacheFile == null || !(ex instanceof LinkageError || ex.getCause() instanceof LinkageError) ||
+					!cacheFile.delete()) {
+				throw ex;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Discarded cached CGLIB subclass of " + configClass.getName() +
+						" that failed to be defined", ex);
+			}
+			Enhancer enhancer = newEnhancer(configClass, classLoader);
+			enhancer.setUseCache(false);
+			enhancedClass = createClass(enhancer);
+		}
 		if (logger.isTraceEnabled()) {
 			logger.trace(String.format("Successfully enhanced %s; enhanced class name is: %s",
 					configClass.getName(), enhancedClass.getName()));
@@ -123,7 +203,8 @@ class ConfigurationClassEnhancer {
 		enhancer.setInterfaces(new Class<?>[] {EnhancedConfiguration.class});
 		enhancer.setUseFactory(false);
 		enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
-		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
+		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(
+				configSuperClass, classLoader, getCacheFile(configSuperClass)));
 		enhancer.setCallbackFilter(CALLBACK_FILTER);
 		enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
 		return enhancer;
@@ -141,6 +222,29 @@ class ConfigurationClassEnhancer {
 		return subclass;
 	}
 
+	/**
+	 * Determine the cache file for the given configuration class, keyed by
+	 * a digest of the bytecode that the generated subclass depends on.
+	 * @return the cache file, or {@code null} if no cache directory has been
+	 * specified or the bytecode of any of the key classes is not accessible
+	 * @see #getCacheKey
+	 */
+	@Nullable
+	private File getCacheFile(Class<?> configClass) {
+		if (this.cacheDirectory == null) {
+			return null;
+		}
+		String cacheKey = cacheKeys.computeIfAbsent(configClass, ConfigurationClassEnhancer::getCacheKey);
+		if (cacheKey.isEmpty()) {
+			return null;
+		}
+		File directory = new File(this.cacheDirectory);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			return null;
+		}
+		return new File(directory, cacheKey + CACHE_FILE_SUFFIX);
+	}
+
 
 	/**
 	 * Marker interface to be implemented by all @Configuration CGLIB subclasses.
@@ -206,14 +310,25 @@ class ConfigurationClassEnhancer {
 	 * Custom extension of CGLIB's DefaultGeneratorStrategy, introducing a {@link BeanFactory} field.
 	 * Also exposes the application ClassLoader as thread context ClassLoader for the time of
 	 * class generation (in order for ASM to pick it up when doing common superclass resolution).
+	 * <p>If a {@link #CACHE_DIRECTORY_PROPERTY_NAME cache directory} has been specified,
+	 * the generated bytecode is stored there and reused on subsequent runs.
 	 */
 	private static class BeanFactoryAwareGeneratorStrategy extends DefaultGeneratorStrategy {
 
+		private final Class<?> configClass;
+
 		@Nullable
 		private final ClassLoader classLoader;
 
-		public BeanFactoryAwareGeneratorStrategy(@Nullable ClassLoader classLoader) {
+		@Nullable
+		private final File cacheFile;
+
+		public BeanFactoryAwareGeneratorStrategy(Class<?> configClass, @Nullable ClassLoader classLoader,
+				@Nullable File cacheFile) {
+
+			this.configClass = configClass;
 			this.classLoader = classLoader;
+			this.cacheFile = cacheFile;
 		}
 
 		@Override
@@ -230,6 +345,74 @@ class ConfigurationClassEnhancer {
 
 		@Override
 		public byte[] generate(ClassGenerator cg) throws Exception {
+			if (this.cacheFile != null && this.cacheFile.isFile()) {
+				byte[] bytes = readCacheFile(this.cacheFile);
+				if (bytes != null) {
+					return bytes;
+				}
+			}
+
+			long startTime = System.nanoTime();
+			byte[] bytes = generateWithClassLoader(cg);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Generated CGLIB subclass of " + this.configClass.getName() + " in " +
+						(System.nanoTime() - startTime) / 1000 + " microseconds");
+			}
+
+			if (this.cacheFile != null) {
+				writeCacheFile(this.cacheFile, bytes);
+			}
+			return bytes;
+		}
+
+		@Nullable
+		private byte[] readCacheFile(File cacheFile) {
+			try {
+				byte[] bytes = decodeCacheContent(FileCopyUtils.copyToByteArray(cacheFile));
+				if (bytes != null) {
+					return bytes;
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Discarding invalid cached CGLIB subclass of " + this.configClass.getName() +
+							": " + cacheFile);
+				}
+				Files.deleteIfExists(cacheFile.toPath());
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to read cached CGLIB subclass of " + this.configClass.getName(), ex);
+				}
+			}
+			return null;
+		}
+
+		private void writeCacheFile(File cacheFile, byte[] bytes) {
+			Path tempFile = null;
+			try {
+				// Unique temp file in the same directory, for an atomic move into place
+				tempFile = Files.createTempFile(cacheFile.getParentFile().toPath(), cacheFile.getName(), ".tmp");
+				Files.write(tempFile, encodeCacheContent(bytes));
+				Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				tempFile = null;
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to cache CGLIB subclass of " + this.configClass.getName(), ex);
+				}
+			}
+			finally {
+				if (tempFile != null) {
+					try {
+						Files.deleteIfExists(tempFile);
+					}
+					catch (IOException ex) {
+						// ignore
+					}
+				}
+			}
+		}
+
+		private byte[] generateWithClassLoader(ClassGenerator cg) throws Exception {
 			if (this.classLoader == null) {
 				return super.generate(cg);
 			}
@@ -261,6 +444,124 @@ class ConfigurationClassEnhancer {
 	}
 
 
+	/**
+	 * Compute the persistent cache key for the given configuration class: its name
+	 * along with an MD5 digest of the Spring version, of the enhancer itself and of
+	 * all {@link #getCacheKeyClasses key classes}.
+	 * @return the cache key, or an empty String if the bytecode of any of the
+	 * classes involved is not accessible
+	 */
+	static String getCacheKey(Class<?> configClass) {
+		Set<Class<?>> classes = getCacheKeyClasses(configClass);
+		classes.add(ConfigurationClassEnhancer.class);
+		classes.add(Enhancer.class);
+		FastByteArrayOutputStream content = new FastByteArrayOutputStream(8192);
+		try {
+			content.write(String.valueOf(SpringVersion.getVersion()).getBytes(StandardCharsets.UTF_8));
+			for (Class<?> clazz : classes) {
+				content.write(clazz.getName().getBytes(StandardCharsets.UTF_8));
+				ClassLoader classLoader = clazz.getClassLoader();
+				String resourcePath = ClassUtils.convertClassNameToResourcePath(clazz.getName()) +
+						ClassUtils.CLASS_FILE_SUFFIX;
+				try (InputStream is = (classLoader != null ? classLoader.getResourceAsStream(resourcePath) :
+						ClassLoader.getSystemResourceAsStream(resourcePath))) {
+					if (is == null) {
+						return "";
+					}
+					FileCopyUtils.copy(is, content);
+				}
+			}
+		}
+		catch (IOException ex) {
+			return "";
+		}
+		return configClass.getName() + "-" + DigestUtils.md5DigestAsHex(content.toByteArrayUnsafe());
+	}
+
+	/**
+	 * Prepend a header with the cache format version and an MD5 checksum
+	 * to the given bytecode, for storing it in a cache file.
+	 * @see #decodeCacheContent
+	 */
+	static byte[] encodeCacheContent(byte[] bytes) {
+		byte[] checksum = DigestUtils.md5DigestAsHex(bytes).getBytes(StandardCharsets.US_ASCII);
+		FastByteArrayOutputStream content = new FastByteArrayOutputStream(
+				CACHE_FILE_HEADER.length + checksum.length + 1 + bytes.length);
+		try {
+			content.write(CACHE_FILE_HEADER);
+			content.write(checksum);
+			content.write('\n');
+			content.write(bytes);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return content.toByteArrayUnsafe();
+	}
+
+	/**
+	 * Extract the bytecode from the given cache file content, verifying the
+	 * cache format version, the checksum and the basic class file structure.
+	 * @return the bytecode, or {@code null} if the content is not valid
+	 * @see #encodeCacheContent
+	 */
+	@Nullable
+	static byte[] decodeCacheContent(byte[] content) {
+		int headerLength = CACHE_FILE_HEADER.length + CACHE_FILE_CHECKSUM_LENGTH + 1;
+		if (content.length <= headerLength || content[headerLength - 1] != '\n') {
+			return null;
+		}
+		for (int i = 0; i < CACHE_FILE_HEADER.length; i++) {
+			if (content[i] != CACHE_FILE_HEADER[i]) {
+				return null;
+			}
+		}
+		String checksum = new String(content, CACHE_FILE_HEADER.length, CACHE_FILE_CHECKSUM_LENGTH,
+				StandardCharsets.US_ASCII);
+		byte[] bytes = Arrays.copyOfRange(content, headerLength, content.length);
+		if (!checksum.equals(DigestUtils.md5DigestAsHex(bytes))) {
+			return null;
+		}
+		try {
+			new ClassReader(bytes).getClassName();
+		}
+		catch (RuntimeException ex) {
+			return null;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Determine the classes that the generated subclass of the given configuration
+	 * class depends on: the class itself, its superclasses and interfaces, and the
+	 * annotation types (including meta-annotations) declared on any of them or on
+	 * their methods. Classes in {@code java.*} packages are not included.
+	 */
+	static Set<Class<?>> getCacheKeyClasses(Class<?> configClass) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		collectCacheKeyClasses(configClass, classes);
+		return classes;
+	}
+
+	private static void collectCacheKeyClasses(@Nullable Class<?> clazz, Set<Class<?>> classes) {
+		if (clazz == null || clazz.getName().startsWith("java.") || !classes.add(clazz)) {
+			return;
+		}
+		for (Annotation annotation : clazz.getDeclaredAnnotations()) {
+			collectCacheKeyClasses(annotation.annotationType(), classes);
+		}
+		for (Method method : clazz.getDeclaredMethods()) {
+			for (Annotation annotation : method.getDeclaredAnnotations()) {
+				collectCacheKeyClasses(annotation.annotationType(), classes);
+			}
+		}
+		collectCacheKeyClasses(clazz.getSuperclass(), classes);
+		for (Class<?> ifc : clazz.getInterfaces()) {
+			collectCacheKeyClasses(ifc, classes);
+		}
+	}
+
+
 	/**
 	 * Intercepts the invocation of any {@link BeanFactoryAware#setBeanFactory(BeanFactory)} on
 	 * {@code @Configuration} class instances for the purpose of recording the {@link BeanFactory}.
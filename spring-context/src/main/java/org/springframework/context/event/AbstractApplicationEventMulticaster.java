@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +67,15 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	/**
+	 * Most recently used ListenerRetriever per event class, allowing for
+	 * retrieval without a cache key for repeated event and source types.
+	 */
+	final Map<Class<?>, DispatchEntry> dispatchCache = new ConcurrentHashMap<>(64);
+
+	/** Incremented after any invalidation of cached ListenerRetrievers. */
+	private volatile int dispatchCacheVersion;
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -111,7 +121,12 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			// Only invalidate cached retrievers that the new listener (or its
+			// replaced target) is relevant for.
+			this.retrieverCache.entrySet().removeIf(entry ->
+					entry.getValue().applicationListeners.contains(singletonTarget) ||
+					supportsEvent(listener, entry.getKey().eventType, entry.getKey().sourceType));
+			invalidateDispatchCache();
 		}
 	}
 
@@ -120,6 +135,7 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
 			this.retrieverCache.clear();
+			invalidateDispatchCache();
 		}
 	}
 
@@ -127,7 +143,9 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			// Only invalidate cached retrievers that contain the listener.
+			this.retrieverCache.values().removeIf(retriever -> retriever.applicationListeners.contains(listener));
+			invalidateDispatchCache();
 		}
 	}
 
@@ -136,6 +154,7 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
 			this.retrieverCache.clear();
+			invalidateDispatchCache();
 		}
 	}
 
@@ -145,10 +164,21 @@ public abstract class AbstractApplicationEventMulticaster
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
 			this.retrieverCache.clear();
+			invalidateDispatchCache();
 		}
 	}
 
 
+	/**
+	 * Invalidate all dispatch entries, to be called after any change of the
+	 * retriever cache (while holding the retrieval mutex).
+	 */
+	private void invalidateDispatchCache() {
+		this.dispatchCache.clear();
+		this.dispatchCacheVersion++;
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -174,11 +204,21 @@ public abstract class AbstractApplicationEventMulticaster
 
 		Object source = event.getSource();
 		Class<?> sourceType = (source != null ? source.getClass() : null);
+
+		// Quick check for the same event and source type as last time for this event class...
+		int dispatchCacheVersion = this.dispatchCacheVersion;
+		DispatchEntry dispatchEntry = this.dispatchCache.get(event.getClass());
+		if (dispatchEntry != null && dispatchEntry.matches(eventType, sourceType, dispatchCacheVersion)) {
+			return dispatchEntry.retriever.getApplicationListeners();
+		}
+
 		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
 
 		// Quick check for existing entry on ConcurrentHashMap...
 		ListenerRetriever retriever = this.retrieverCache.get(cacheKey);
 		if (retriever != null) {
+			this.dispatchCache.put(event.getClass(),
+					new DispatchEntry(eventType, sourceType, retriever, dispatchCacheVersion));
 			return retriever.getApplicationListeners();
 		}
 
@@ -358,6 +398,37 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	/**
+	 * Cached ListenerRetriever for a specific event class, along with the
+	 * event type and source type that it has been retrieved for.
+	 */
+	private static final class DispatchEntry {
+
+		private final ResolvableType eventType;
+
+		@Nullable
+		private final Class<?> sourceType;
+
+		private final ListenerRetriever retriever;
+
+		private final int version;
+
+		public DispatchEntry(ResolvableType eventType, @Nullable Class<?> sourceType,
+				ListenerRetriever retriever, int version) {
+
+			this.eventType = eventType;
+			this.sourceType = sourceType;
+			this.retriever = retriever;
+			this.version = version;
+		}
+
+		public boolean matches(ResolvableType eventType, @Nullable Class<?> sourceType, int currentVersion) {
+			return (this.version == currentVersion && this.sourceType == sourceType &&
+					(this.eventType == eventType || this.eventType.equals(eventType)));
+		}
+	}
+
+
 	/**
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
@@ -371,11 +442,23 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> preFilteredListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.preFiltered && this.applicationListenerBeans.isEmpty()) {
+				// Cached retriever with sorted singleton listeners only -> immutable after caching
+				List<ApplicationListener<?>> listeners = this.preFilteredListeners;
+				if (listeners == null) {
+					listeners = Collections.unmodifiableList(new ArrayList<>(this.applicationListeners));
+					this.preFilteredListeners = listeners;
+				}
+				return listeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
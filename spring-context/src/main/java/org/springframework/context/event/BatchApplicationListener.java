@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Extended variant of the standard {@link ApplicationListener} interface,
+ * receiving events in batches when used with a
+ * {@link BatchingApplicationEventMulticaster}.
+ *
+ * <p>Other multicasters deliver events one at a time through
+ * {@link #onApplicationEvent}, which by default delegates to
+ * {@link #onApplicationEvents} with a singleton list.
+ *
+ * @author agent
+ * @since 5.2
+ * @param <E> the specific ApplicationEvent subclass to listen to
+ * @see BatchingApplicationEventMulticaster#setMaxBatchSize
+ */
+@FunctionalInterface
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle a batch of application events, in the order of their publication
+	 * unless concurrent delivery has been configured for this listener.
+	 * <p>The given list is unmodifiable and not reused by the multicaster
+	 * after this method returns: the listener may keep a reference to it or
+	 * hand it off for asynchronous processing.
+	 * @param events the events to respond to (never empty)
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Handle a single application event.
+	 * <p>The default implementation delegates to {@link #onApplicationEvents}.
+	 * @param event the event to respond to
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(Collections.singletonList(event));
+	}
+
+}
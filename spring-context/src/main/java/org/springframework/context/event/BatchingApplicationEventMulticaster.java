@@ -0,0 +1,437 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} variant which hands events to
+ * a bounded queue per listener, drained by tasks on the configured
+ * {@linkplain #setTaskExecutor task executor}.
+ *
+ * <p>Each drain task delivers up to {@link #setMaxBatchSize "maxBatchSize"}
+ * queued events at once: {@link BatchApplicationListener} implementations
+ * receive them as a single list, all other listeners one by one. This avoids
+ * submitting one executor task per listener and event for high event rates.
+ *
+ * <p>By default, a single drain task is active per listener at any time,
+ * preserving the publication order of events for each listener. Specify a
+ * higher {@link #setListenerConcurrency "listenerConcurrency"} for unordered
+ * delivery with several concurrent drain tasks per listener.
+ *
+ * <p>If no task executor has been specified, all listeners are invoked
+ * synchronously in the calling thread, as with the superclass.
+ *
+ * @author agent
+ * @since 5.2
+ * @see BatchApplicationListener
+ * @see #setOverflowPolicy
+ * @see #getListenerStatistics()
+ */
+public class BatchingApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+	/**
+	 * Policy for events that do not fit into a listener's queue anymore.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the queue has room again
+		 * (the default, applying backpressure to the publisher).
+		 * <p>Events published by a listener from within a drain task are
+		 * handled as with {@link #CALLER_RUNS} instead, since blocking there
+		 * may wait for the very drain task that would make room.
+		 */
+		BLOCK,
+
+		/**
+		 * Invoke the listener with the event in the publishing thread,
+		 * bypassing the queue (and therefore its ordering guarantee).
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * Discard the event for the listener, just counting it in the
+		 * listener's {@link ListenerStatistics#getDiscardedCount() statistics}.
+		 */
+		DISCARD
+	}
+
+
+	private static final ThreadLocal<Boolean> drainTaskActive =
+			new NamedThreadLocal<>("Event queue drain task active");
+
+
+	private int queueCapacity = 1024;
+
+	private int maxBatchSize = 100;
+
+	private int listenerConcurrency = 1;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	private final Map<ApplicationListener<?>, ListenerQueue> listenerQueues =
+			new ConcurrentReferenceHashMap<>(64, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+
+	/**
+	 * Create a new BatchingApplicationEventMulticaster.
+	 */
+	public BatchingApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new BatchingApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public BatchingApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the capacity of the event queue per listener.
+	 * <p>Default is 1024.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of events to deliver to a listener per batch.
+	 * <p>Default is 100.
+	 * @see BatchApplicationListener#onApplicationEvents
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of drain tasks that may deliver events to the
+	 * same listener concurrently.
+	 * <p>Default is 1, delivering events to each listener in publication order.
+	 * Higher values trade that ordering guarantee for throughput.
+	 */
+	public void setListenerConcurrency(int listenerConcurrency) {
+		Assert.isTrue(listenerConcurrency > 0, "Listener concurrency must be greater than 0");
+		this.listenerConcurrency = listenerConcurrency;
+	}
+
+	/**
+	 * Set the policy to apply when a listener's queue is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+
+	@Override
+	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
+		Executor executor = getTaskExecutor();
+		if (executor == null) {
+			super.multicastEvent(event, eventType);
+			return;
+		}
+		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
+		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			this.listenerQueues.computeIfAbsent(listener, key -> new ListenerQueue(this.queueCapacity))
+					.enqueue(listener, event, executor);
+		}
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.listenerQueues.remove(listener);
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerQueues.clear();
+	}
+
+	/**
+	 * Return a snapshot of the queue statistics for every listener that
+	 * events have been dispatched to so far.
+	 */
+	public Map<ApplicationListener<?>, ListenerStatistics> getListenerStatistics() {
+		Map<ApplicationListener<?>, ListenerStatistics> statistics = new LinkedHashMap<>();
+		this.listenerQueues.forEach((listener, queue) -> statistics.put(listener, queue.getStatistics()));
+		return statistics;
+	}
+
+	/**
+	 * Deliver the given batch of events to the given listener.
+	 * @param listener the ApplicationListener to invoke
+	 * @param events the events to deliver, in queue order (not to be modified;
+	 * owned by the listener from now on)
+	 */
+	protected void invokeListener(ApplicationListener<?> listener, List<ApplicationEvent> events) {
+		if (listener instanceof BatchApplicationListener) {
+			BatchApplicationListener<?> batchListener = (BatchApplicationListener<?>) listener;
+			ErrorHandler errorHandler = getErrorHandler();
+			if (errorHandler != null) {
+				try {
+					doInvokeListener(batchListener, events);
+				}
+				catch (Throwable err) {
+					errorHandler.handleError(err);
+				}
+			}
+			else {
+				doInvokeListener(batchListener, events);
+			}
+		}
+		else {
+			for (ApplicationEvent event : events) {
+				invokeListener(listener, event);
+			}
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void doInvokeListener(BatchApplicationListener listener, List<ApplicationEvent> events) {
+		try {
+			listener.onApplicationEvents(events);
+		}
+		catch (ClassCastException ex) {
+			for (ApplicationEvent event : events) {
+				if (isNonMatchingEventType(ex, event.getClass())) {
+					// Possibly a lambda-defined listener which we could not resolve the generic event type for
+					// -> let's suppress the exception and just log a debug message.
+					Log logger = LogFactory.getLog(getClass());
+					if (logger.isDebugEnabled()) {
+						logger.debug("Non-matching event type for listener: " + listener, ex);
+					}
+					return;
+				}
+			}
+			throw ex;
+		}
+	}
+
+
+	/**
+	 * Bounded event queue for a specific listener, along with its statistics.
+	 */
+	private class ListenerQueue {
+
+		private final BlockingQueue<ApplicationEvent> queue;
+
+		private final AtomicInteger activeDrainers = new AtomicInteger();
+
+		private final AtomicLong deliveredCount = new AtomicLong();
+
+		private final AtomicLong discardedCount = new AtomicLong();
+
+		private final AtomicLong batchCount = new AtomicLong();
+
+		private final AtomicLong deliveryNanos = new AtomicLong();
+
+		public ListenerQueue(int capacity) {
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		public void enqueue(ApplicationListener<?> listener, ApplicationEvent event, Executor executor) {
+			if (!this.queue.offer(event)) {
+				OverflowPolicy policy = overflowPolicy;
+				if (policy == OverflowPolicy.BLOCK && drainTaskActive.get() != null) {
+					// Blocking a drain task may wait for itself: deliver right away.
+					policy = OverflowPolicy.CALLER_RUNS;
+				}
+				switch (policy) {
+					case CALLER_RUNS:
+						deliver(listener, Collections.singletonList(event));
+						return;
+					case DISCARD:
+						this.discardedCount.incrementAndGet();
+						return;
+					default:
+						try {
+							this.queue.put(event);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							this.discardedCount.incrementAndGet();
+							return;
+						}
+				}
+			}
+			scheduleDrain(listener, executor);
+		}
+
+		private void scheduleDrain(ApplicationListener<?> listener, Executor executor) {
+			while (true) {
+				int active = this.activeDrainers.get();
+				if (active >= listenerConcurrency) {
+					// An active drain task is going to pick up the event.
+					return;
+				}
+				if (this.activeDrainers.compareAndSet(active, active + 1)) {
+					break;
+				}
+			}
+			try {
+				executor.execute(() -> drain(listener, executor));
+			}
+			catch (RejectedExecutionException ex) {
+				this.activeDrainers.decrementAndGet();
+				throw ex;
+			}
+		}
+
+		private void drain(ApplicationListener<?> listener, Executor executor) {
+			Boolean previousDrainTaskActive = drainTaskActive.get();
+			drainTaskActive.set(Boolean.TRUE);
+			try {
+				List<ApplicationEvent> batch = new ArrayList<>(Math.min(maxBatchSize, this.queue.size() + 1));
+				while (this.queue.drainTo(batch, maxBatchSize) > 0) {
+					// The listener owns the delivered batch: never reuse it for the next one
+					deliver(listener, Collections.unmodifiableList(batch));
+					batch = new ArrayList<>(Math.min(maxBatchSize, this.queue.size() + 1));
+				}
+			}
+			finally {
+				if (previousDrainTaskActive == null) {
+					drainTaskActive.remove();
+				}
+				this.activeDrainers.decrementAndGet();
+				if (!this.queue.isEmpty()) {
+					// Events enqueued while this drain task was about to finish.
+					scheduleDrain(listener, executor);
+				}
+			}
+		}
+
+		private void deliver(ApplicationListener<?> listener, List<ApplicationEvent> events) {
+			long startTime = System.nanoTime();
+			try {
+				invokeListener(listener, events);
+			}
+			finally {
+				this.deliveryNanos.addAndGet(System.nanoTime() - startTime);
+				this.deliveredCount.addAndGet(events.size());
+				this.batchCount.incrementAndGet();
+			}
+		}
+
+		public ListenerStatistics getStatistics() {
+			return new ListenerStatistics(this.queue.size(), this.deliveredCount.get(),
+					this.discardedCount.get(), this.batchCount.get(), this.deliveryNanos.get());
+		}
+	}
+
+
+	/**
+	 * Snapshot of the queue statistics for a specific listener.
+	 * @see #getListenerStatistics()
+	 */
+	public static final class ListenerStatistics {
+
+		private final int queueDepth;
+
+		private final long deliveredCount;
+
+		private final long discardedCount;
+
+		private final long batchCount;
+
+		private final long deliveryNanos;
+
+		ListenerStatistics(int queueDepth, long deliveredCount, long discardedCount,
+				long batchCount, long deliveryNanos) {
+
+			this.queueDepth = queueDepth;
+			this.deliveredCount = deliveredCount;
+			this.discardedCount = discardedCount;
+			this.batchCount = batchCount;
+			this.deliveryNanos = deliveryNanos;
+		}
+
+		/**
+		 * Return the number of events currently waiting in the listener's queue.
+		 */
+		public int getQueueDepth() {
+			return this.queueDepth;
+		}
+
+		/**
+		 * Return the number of events delivered to the listener so far.
+		 */
+		public long getDeliveredCount() {
+			return this.deliveredCount;
+		}
+
+		/**
+		 * Return the number of events discarded for the listener so far.
+		 * @see OverflowPolicy#DISCARD
+		 */
+		public long getDiscardedCount() {
+			return this.discardedCount;
+		}
+
+		/**
+		 * Return the number of batches delivered to the listener so far.
+		 */
+		public long getBatchCount() {
+			return this.batchCount;
+		}
+
+		/**
+		 * Return the average time spent in the listener per batch, in nanoseconds.
+		 */
+		public long getAverageBatchLatency() {
+			return (this.batchCount > 0 ? this.deliveryNanos / this.batchCount : 0);
+		}
+
+		@Override
+		public String toString() {
+			return "queueDepth=" + this.queueDepth + ", delivered=" + this.deliveredCount +
+					", discarded=" + this.discardedCount + ", batches=" + this.batchCount +
+					", averageBatchLatency=" + getAverageBatchLatency() + "ns";
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.context.event;
 
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
@@ -25,7 +26,9 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -54,6 +57,8 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private final Map<Class<?>, ResolvableType> defaultEventTypeCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	/**
 	 * Create a new SimpleApplicationEventMulticaster.
@@ -141,8 +146,11 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
-	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
-		return ResolvableType.forInstance(event);
+	ResolvableType resolveDefaultEventType(ApplicationEvent event) {
+		if (event instanceof ResolvableTypeProvider) {
+			return ResolvableType.forInstance(event);
+		}
+		return this.defaultEventTypeCache.computeIfAbsent(event.getClass(), ResolvableType::forClass);
 	}
 
 	/**
@@ -172,8 +180,7 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 			listener.onApplicationEvent(event);
 		}
 		catch (ClassCastException ex) {
-			String msg = ex.getMessage();
-			if (msg == null || matchesClassCastMessage(msg, event.getClass())) {
+			if (isNonMatchingEventType(ex, event.getClass())) {
 				// Possibly a lambda-defined listener which we could not resolve the generic event type for
 				// -> let's suppress the exception and just log a debug message.
 				Log logger = LogFactory.getLog(getClass());
@@ -187,6 +194,17 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Determine whether the given ClassCastException thrown by a listener
+	 * indicates that the listener cannot take events of the given class,
+	 * e.g. a lambda-defined listener whose generic event type could not be
+	 * resolved, rather than an unrelated class cast failure.
+	 */
+	boolean isNonMatchingEventType(ClassCastException ex, Class<?> eventClass) {
+		String msg = ex.getMessage();
+		return (msg == null || matchesClassCastMessage(msg, eventClass));
+	}
+
 	private boolean matchesClassCastMessage(String classCastMessage, Class<?> eventClass) {
 		// On Java 8, the message starts with the class name: "java.lang.String cannot be cast..."
 		if (classCastMessage.startsWith(eventClass.getName())) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.aop.framework;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.List;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -25,6 +27,9 @@ import org.junit.Test;
 
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.target.HotSwappableTargetSource;
+import org.springframework.lang.Nullable;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -138,6 +143,58 @@ public class JdkDynamicProxyTests extends AbstractAopProxyTests implements Seria
 		assertEquals("hashCode()", proxy.hashCode(), named.hashCode());
 	}
 
+	@Test
+	public void testFixedChainWithFrozenStaticConfig() {
+		TestBean raw = new TestBean();
+		NopInterceptor nop = new NopInterceptor();
+		ChainCountingAdvisedSupport pc = new ChainCountingAdvisedSupport();
+		pc.addAdvice(nop);
+		pc.setTarget(raw);
+		pc.setFrozen(true);
+
+		ITestBean tb = (ITestBean) createAopProxy(pc).getProxy();
+		int chainLookups = pc.chainLookups;
+		assertTrue("Chains not resolved at proxy creation", chainLookups > 0);
+		tb.setAge(42);
+		assertEquals(42, tb.getAge());
+		assertEquals(42, raw.getAge());
+		assertEquals(2, nop.getCount());
+		assertEquals("Fixed chains not used", chainLookups, pc.chainLookups);
+	}
+
+	@Test
+	public void testDynamicChainWithNonFrozenConfig() {
+		TestBean raw = new TestBean();
+		NopInterceptor nop = new NopInterceptor();
+		ChainCountingAdvisedSupport pc = new ChainCountingAdvisedSupport();
+		pc.addAdvice(nop);
+		pc.setTarget(raw);
+
+		ITestBean tb = (ITestBean) createAopProxy(pc).getProxy();
+		assertEquals(0, pc.chainLookups);
+		tb.setAge(42);
+		assertEquals(42, tb.getAge());
+		assertEquals(2, nop.getCount());
+		assertEquals(2, pc.chainLookups);
+	}
+
+	@Test
+	public void testDynamicChainWithFrozenNonStaticConfig() {
+		TestBean raw = new TestBean();
+		NopInterceptor nop = new NopInterceptor();
+		ChainCountingAdvisedSupport pc = new ChainCountingAdvisedSupport();
+		pc.addAdvice(nop);
+		pc.setTargetSource(new HotSwappableTargetSource(raw));
+		pc.setFrozen(true);
+
+		ITestBean tb = (ITestBean) createAopProxy(pc).getProxy();
+		assertEquals(0, pc.chainLookups);
+		tb.setAge(42);
+		assertEquals(42, tb.getAge());
+		assertEquals(2, nop.getCount());
+		assertEquals(2, pc.chainLookups);
+	}
+
 	@Test  // SPR-13328
 	public void testVarargsWithEnumArray() throws Exception {
 		ProxyFactory proxyFactory = new ProxyFactory(new VarargTestBean());
@@ -229,6 +286,23 @@ public class JdkDynamicProxyTests extends AbstractAopProxyTests implements Seria
 	}
 
 
+	@SuppressWarnings("serial")
+	private static class ChainCountingAdvisedSupport extends AdvisedSupport {
+
+		private int chainLookups;
+
+		public ChainCountingAdvisedSupport() {
+			super(ITestBean.class);
+		}
+
+		@Override
+		public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+			this.chainLookups++;
+			return super.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+		}
+	}
+
+
 	public enum MyEnum implements MyInterface {
 
 		A, B;
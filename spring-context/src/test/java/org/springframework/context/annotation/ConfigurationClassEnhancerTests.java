@@ -0,0 +1,215 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the persistent cache of {@link ConfigurationClassEnhancer}.
+ */
+public class ConfigurationClassEnhancerTests {
+
+	@Rule
+	public final TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+
+	@Test
+	public void cacheMissStoresGeneratedClass() throws Exception {
+		ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer(this.cacheDirectory.getRoot().getPath());
+		Class<?> configClass = loadInNewClassLoader(CachedConfig.class);
+		Class<?> enhancedClass = enhancer.enhance(configClass, null);
+
+		assertTrue(configClass.isAssignableFrom(enhancedClass));
+		File[] files = this.cacheDirectory.getRoot().listFiles();
+		assertEquals(1, files.length);
+		assertEquals(ConfigurationClassEnhancer.getCacheKey(configClass) + ".cglib", files[0].getName());
+	}
+
+	@Test
+	public void cacheHitUsesStoredClass() throws Exception {
+		ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer(this.cacheDirectory.getRoot().getPath());
+		enhancer.enhance(loadInNewClassLoader(CachedConfig.class), null);
+		File cacheFile = this.cacheDirectory.getRoot().listFiles()[0];
+		assertTrue(cacheFile.setLastModified(0));
+
+		Class<?> configClass = loadInNewClassLoader(CachedConfig.class);
+		Class<?> cachedClass = enhancer.enhance(configClass, null);
+		assertTrue(configClass.isAssignableFrom(cachedClass));
+		assertEquals(0, cacheFile.lastModified());
+		assertEquals(1, this.cacheDirectory.getRoot().listFiles().length);
+	}
+
+	@Test
+	public void cacheEntryWithOtherFormatVersionDiscarded() throws Exception {
+		File cacheFile = storeCachedClass();
+		byte[] content = FileCopyUtils.copyToByteArray(cacheFile);
+		byte[] header = "SpringCGLIBCache/1:".getBytes(StandardCharsets.US_ASCII);
+		content[header.length - 2] = '0';
+		FileCopyUtils.copy(content, cacheFile);
+
+		assertNull(ConfigurationClassEnhancer.decodeCacheContent(content));
+		assertEnhancedWithValidCacheEntry(cacheFile);
+	}
+
+	@Test
+	public void cacheEntryWithChecksumMismatchDiscarded() throws Exception {
+		File cacheFile = storeCachedClass();
+		byte[] content = FileCopyUtils.copyToByteArray(cacheFile);
+		content[content.length - 1]++;
+		FileCopyUtils.copy(content, cacheFile);
+
+		assertNull(ConfigurationClassEnhancer.decodeCacheContent(content));
+		assertEnhancedWithValidCacheEntry(cacheFile);
+	}
+
+	@Test
+	public void cacheEntryWithInvalidBytecodeDiscarded() throws Exception {
+		File cacheFile = storeCachedClass();
+		byte[] content = ConfigurationClassEnhancer.encodeCacheContent(new byte[] {1, 2, 3});
+		FileCopyUtils.copy(content, cacheFile);
+
+		assertNull(ConfigurationClassEnhancer.decodeCacheContent(content));
+		assertEnhancedWithValidCacheEntry(cacheFile);
+	}
+
+	@Test
+	public void cacheEntryFailingToBeDefinedDiscarded() throws Exception {
+		File cacheFile = storeCachedClass();
+		// Valid bytecode, but for a class that is already defined in the target ClassLoader
+		String resourcePath = ClassUtils.convertClassNameToResourcePath(CachedConfig.class.getName()) + ".class";
+		byte[] bytes;
+		try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
+			bytes = FileCopyUtils.copyToByteArray(is);
+		}
+		byte[] content = ConfigurationClassEnhancer.encodeCacheContent(bytes);
+		FileCopyUtils.copy(content, cacheFile);
+
+		assertArrayEquals(bytes, ConfigurationClassEnhancer.decodeCacheContent(content));
+		assertEnhancedWithValidCacheEntry(cacheFile);
+	}
+
+	@Test
+	public void cacheKeyCoversSuperclassesInterfacesAndAnnotations() {
+		Set<Class<?>> classes = ConfigurationClassEnhancer.getCacheKeyClasses(CachedConfig.class);
+		assertTrue(classes.contains(CachedConfig.class));
+		assertTrue(classes.contains(ParentConfig.class));
+		assertTrue(classes.contains(ConfigInterface.class));
+		assertTrue(classes.contains(MyBean.class));
+		assertTrue(classes.contains(Bean.class));
+		assertTrue(classes.contains(Configuration.class));
+		assertFalse(classes.contains(Object.class));
+	}
+
+	@Test
+	public void cacheKeyDiffersForDifferentHierarchy() {
+		assertNotEquals(ConfigurationClassEnhancer.getCacheKey(CachedConfig.class).split("-")[1],
+				ConfigurationClassEnhancer.getCacheKey(ParentConfig.class).split("-")[1]);
+	}
+
+	@Test
+	public void noCacheDirectory() throws Exception {
+		ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer(null);
+		Class<?> configClass = loadInNewClassLoader(CachedConfig.class);
+		assertTrue(configClass.isAssignableFrom(enhancer.enhance(configClass, null)));
+		assertEquals(0, this.cacheDirectory.getRoot().listFiles().length);
+	}
+
+
+	private File storeCachedClass() throws Exception {
+		ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer(this.cacheDirectory.getRoot().getPath());
+		enhancer.enhance(loadInNewClassLoader(CachedConfig.class), null);
+		File[] files = this.cacheDirectory.getRoot().listFiles();
+		assertEquals(1, files.length);
+		return files[0];
+	}
+
+	private void assertEnhancedWithValidCacheEntry(File cacheFile) throws Exception {
+		ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer(this.cacheDirectory.getRoot().getPath());
+		Class<?> configClass = loadInNewClassLoader(CachedConfig.class);
+		Class<?> enhancedClass = enhancer.enhance(configClass, null);
+
+		assertTrue(configClass.isAssignableFrom(enhancedClass));
+		assertArrayEquals("Cache entry not regenerated", new File[] {cacheFile}, this.cacheDirectory.getRoot().listFiles());
+		byte[] bytes = ConfigurationClassEnhancer.decodeCacheContent(FileCopyUtils.copyToByteArray(cacheFile));
+		assertNotNull(bytes);
+		assertTrue(new String(bytes, StandardCharsets.ISO_8859_1).contains("$$EnhancerBySpringCGLIB$$"));
+	}
+
+	private static Class<?> loadInNewClassLoader(Class<?> clazz) throws ClassNotFoundException {
+		ClassLoader classLoader = new OverridingClassLoader(clazz.getClassLoader()) {
+			@Override
+			protected boolean isEligibleForOverriding(String className) {
+				return className.equals(clazz.getName());
+			}
+		};
+		return classLoader.loadClass(clazz.getName());
+	}
+
+
+	@Target(ElementType.METHOD)
+	@Retention(RetentionPolicy.RUNTIME)
+	@Bean
+	public @interface MyBean {
+	}
+
+
+	public interface ConfigInterface {
+
+		@Bean
+		default String fromInterface() {
+			return "interface";
+		}
+	}
+
+
+	@Configuration
+	public static class ParentConfig implements ConfigInterface {
+
+		@Bean
+		public String fromParent() {
+			return "parent";
+		}
+	}
+
+
+	@Configuration
+	public static class CachedConfig extends ParentConfig {
+
+		@MyBean
+		public String fromChild() {
+			return "child";
+		}
+	}
+
+}
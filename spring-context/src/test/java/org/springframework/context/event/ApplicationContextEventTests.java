@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -295,8 +295,9 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertTrue(listener1.seenEvents.contains(event3));
 		assertTrue(listener1.seenEvents.contains(event4));
 
+		// Lazy listener2 only invalidates the cached retriever for MyEvent
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertEquals(2, multicaster.retrieverCache.size());
+		assertEquals(3, multicaster.retrieverCache.size());
 
 		context.close();
 	}
@@ -323,6 +324,106 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		context.close();
 	}
 
+	@Test
+	public void listenerRetrievalWithDispatchCache() {
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+		MyEventListener listener = new MyEventListener();
+		multicaster.addApplicationListener(listener);
+
+		multicaster.multicastEvent(new MyEvent(this));
+		assertEquals(1, multicaster.retrieverCache.size());
+		assertTrue(multicaster.dispatchCache.isEmpty());
+		multicaster.multicastEvent(new MyEvent(this));
+		assertTrue(multicaster.dispatchCache.containsKey(MyEvent.class));
+
+		// Same event and source type: served from the dispatch cache
+		multicaster.retrieverCache.clear();
+		multicaster.multicastEvent(new MyEvent(this));
+		assertTrue(multicaster.retrieverCache.isEmpty());
+		assertEquals(3, listener.seenEvents.size());
+
+		// Different source type: goes through the retriever cache again
+		multicaster.multicastEvent(new MyEvent("source"));
+		assertEquals(1, multicaster.retrieverCache.size());
+		assertEquals(4, listener.seenEvents.size());
+	}
+
+	@Test
+	public void addAndRemoveListenerOnlyInvalidatesAffectedRetrievers() {
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		multicaster.addApplicationListener(listener1);
+		multicaster.multicastEvent(new MyOtherEvent(this));
+		Object otherEventRetriever = multicaster.retrieverCache.values().iterator().next();
+		multicaster.multicastEvent(new MyOtherEvent(this));
+		multicaster.multicastEvent(new MyEvent(this));
+		multicaster.multicastEvent(new MyEvent(this));
+		assertEquals(2, multicaster.retrieverCache.size());
+		assertEquals(2, multicaster.dispatchCache.size());
+
+		MyEventListener listener2 = new MyEventListener();
+		multicaster.addApplicationListener(listener2);
+		assertEquals(1, multicaster.retrieverCache.size());
+		assertTrue(multicaster.retrieverCache.containsValue(otherEventRetriever));
+		assertTrue(multicaster.dispatchCache.isEmpty());
+
+		MyEvent event = new MyEvent(this);
+		multicaster.multicastEvent(event);
+		assertTrue(listener2.seenEvents.contains(event));
+		assertEquals(2, multicaster.retrieverCache.size());
+
+		multicaster.removeApplicationListener(listener2);
+		assertEquals(1, multicaster.retrieverCache.size());
+		assertTrue(multicaster.retrieverCache.containsValue(otherEventRetriever));
+		assertTrue(multicaster.dispatchCache.isEmpty());
+
+		multicaster.multicastEvent(new MyEvent(this));
+		assertEquals(1, listener2.seenEvents.size());
+		assertEquals(2, multicaster.retrieverCache.size());
+
+		multicaster.removeApplicationListener(listener1);
+		assertTrue(multicaster.retrieverCache.isEmpty());
+	}
+
+	@Test
+	public void addAndRemoveListenerBeanInvalidatesAllRetrievers() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBeanDefinition("listener", new RootBeanDefinition(MyEventListener.class));
+		context.refresh();
+		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
+		context.publishEvent(new MyEvent(context));
+		context.publishEvent(new MyEvent(context));
+		assertFalse(multicaster.retrieverCache.isEmpty());
+		assertFalse(multicaster.dispatchCache.isEmpty());
+
+		context.registerSingleton("otherListener", MyEventListener.class);
+		multicaster.addApplicationListenerBean("otherListener");
+		assertTrue(multicaster.retrieverCache.isEmpty());
+		assertTrue(multicaster.dispatchCache.isEmpty());
+
+		context.publishEvent(new MyEvent(context));
+		context.publishEvent(new MyEvent(context));
+		assertFalse(multicaster.retrieverCache.isEmpty());
+		assertFalse(multicaster.dispatchCache.isEmpty());
+
+		multicaster.removeApplicationListenerBean("otherListener");
+		assertTrue(multicaster.retrieverCache.isEmpty());
+		assertTrue(multicaster.dispatchCache.isEmpty());
+
+		context.close();
+	}
+
+	@Test
+	public void payloadEventTypeResolution() {
+		ResolvableType stringType = new PayloadApplicationEvent<>(this, "event1").getResolvableType();
+		assertEquals(ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, String.class), stringType);
+		assertSame(stringType, new PayloadApplicationEvent<>(this, "event2").getResolvableType());
+
+		ResolvableType integerType = new PayloadApplicationEvent<>(this, 1).getResolvableType();
+		assertEquals(ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, Integer.class), integerType);
+		assertSame(integerType, new PayloadApplicationEvent<>(this, 2).getResolvableType());
+	}
+
 	@Test
 	public void listenersInApplicationContextWithNestedChild() {
 		StaticApplicationContext context = new StaticApplicationContext();
@@ -627,6 +728,17 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 	}
 
 
+	public static class MyEventListener implements ApplicationListener<MyEvent> {
+
+		public final List<ApplicationEvent> seenEvents = new LinkedList<>();
+
+		@Override
+		public void onApplicationEvent(MyEvent event) {
+			this.seenEvents.add(event);
+		}
+	}
+
+
 	public static class EventPublishingBeanPostProcessor implements BeanPostProcessor, ApplicationContextAware {
 
 		private ApplicationContext applicationContext;
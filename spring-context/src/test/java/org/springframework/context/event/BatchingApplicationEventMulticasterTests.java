@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.StaticApplicationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BatchingApplicationEventMulticaster}.
+ */
+public class BatchingApplicationEventMulticasterTests {
+
+	private final LinkedList<Runnable> tasks = new LinkedList<>();
+
+	private final BatchingApplicationEventMulticaster multicaster = new BatchingApplicationEventMulticaster();
+
+
+	@Test
+	public void batchListenerReceivesQueuedEventsInOrder() {
+		List<List<ContextRefreshedEvent>> batches = new ArrayList<>();
+		BatchApplicationListener<ContextRefreshedEvent> listener = new BatchApplicationListener<ContextRefreshedEvent>() {
+			@Override
+			public void onApplicationEvents(List<ContextRefreshedEvent> events) {
+				batches.add(new ArrayList<>(events));
+			}
+		};
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(2);
+
+		ContextRefreshedEvent event1 = new ContextRefreshedEvent(new StaticApplicationContext());
+		ContextRefreshedEvent event2 = new ContextRefreshedEvent(new StaticApplicationContext());
+		ContextRefreshedEvent event3 = new ContextRefreshedEvent(new StaticApplicationContext());
+		this.multicaster.multicastEvent(event1);
+		this.multicaster.multicastEvent(event2);
+		this.multicaster.multicastEvent(event3);
+		this.multicaster.multicastEvent(new ContextClosedEvent(new StaticApplicationContext()));
+
+		assertEquals("Single drain task per listener", 1, this.tasks.size());
+		assertEquals(3, this.multicaster.getListenerStatistics().get(listener).getQueueDepth());
+		runTasks();
+
+		assertEquals(2, batches.size());
+		assertEquals(2, batches.get(0).size());
+		assertSame(event1, batches.get(0).get(0));
+		assertSame(event2, batches.get(0).get(1));
+		assertSame(event3, batches.get(1).get(0));
+		BatchingApplicationEventMulticaster.ListenerStatistics statistics =
+				this.multicaster.getListenerStatistics().get(listener);
+		assertEquals(0, statistics.getQueueDepth());
+		assertEquals(3, statistics.getDeliveredCount());
+		assertEquals(2, statistics.getBatchCount());
+	}
+
+	@Test
+	public void batchListenerOwnsDeliveredBatch() {
+		List<List<ApplicationEvent>> batches = new ArrayList<>();
+		BatchApplicationListener<ApplicationEvent> listener = batches::add;
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMaxBatchSize(1);
+
+		ContextRefreshedEvent event1 = new ContextRefreshedEvent(new StaticApplicationContext());
+		ContextRefreshedEvent event2 = new ContextRefreshedEvent(new StaticApplicationContext());
+		this.multicaster.multicastEvent(event1);
+		this.multicaster.multicastEvent(event2);
+		runTasks();
+
+		assertEquals(2, batches.size());
+		assertEquals(Collections.singletonList(event1), batches.get(0));
+		assertEquals(Collections.singletonList(event2), batches.get(1));
+		try {
+			batches.get(0).clear();
+			fail("Expected UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void batchListenerWithNonMatchingEventTypeIgnored() {
+		List<ApplicationContext> received = new ArrayList<>();
+		BatchApplicationListener<ContextClosedEvent> listener =
+				events -> received.add(events.get(0).getApplicationContext());
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		runTasks();
+
+		assertTrue(received.isEmpty());
+		assertEquals(1, this.multicaster.getListenerStatistics().get(listener).getDeliveredCount());
+	}
+
+	@Test
+	public void regularListenerReceivesEventsOneByOne() {
+		List<ApplicationEvent> received = new ArrayList<>();
+		this.multicaster.addApplicationListener(received::add);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		this.multicaster.multicastEvent(new ContextClosedEvent(new StaticApplicationContext()));
+		assertTrue(received.isEmpty());
+		runTasks();
+
+		assertEquals(2, received.size());
+	}
+
+	@Test
+	public void discardOnOverflow() {
+		List<ApplicationEvent> received = new ArrayList<>();
+		BatchApplicationListener<ApplicationEvent> listener = received::addAll;
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(BatchingApplicationEventMulticaster.OverflowPolicy.DISCARD);
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		runTasks();
+
+		assertEquals(1, received.size());
+		assertEquals(1, this.multicaster.getListenerStatistics().get(listener).getDiscardedCount());
+	}
+
+	@Test
+	public void callerRunsOnOverflow() {
+		List<ApplicationEvent> received = new ArrayList<>();
+		BatchApplicationListener<ApplicationEvent> listener = received::addAll;
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(BatchingApplicationEventMulticaster.OverflowPolicy.CALLER_RUNS);
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		assertEquals(1, received.size());
+		runTasks();
+
+		assertEquals(2, received.size());
+	}
+
+	@Test(timeout = 5000)
+	public void blockOnOverflowFromDrainTaskRunsInCaller() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		List<ApplicationEvent> received = new ArrayList<>();
+		ApplicationListener<ApplicationEvent> listener = event -> {
+			received.add(event);
+			if (event instanceof ContextRefreshedEvent) {
+				this.multicaster.multicastEvent(new ContextClosedEvent(context));
+				this.multicaster.multicastEvent(new ContextClosedEvent(context));
+			}
+		};
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(1);
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(context));
+		runTasks();
+
+		assertEquals(3, received.size());
+		assertEquals(0, this.multicaster.getListenerStatistics().get(listener).getDiscardedCount());
+	}
+
+	@Test
+	public void synchronousWithoutTaskExecutor() {
+		List<ApplicationEvent> received = new ArrayList<>();
+		this.multicaster.addApplicationListener(received::add);
+
+		this.multicaster.multicastEvent(new ContextRefreshedEvent(new StaticApplicationContext()));
+		assertEquals(1, received.size());
+		assertTrue(this.multicaster.getListenerStatistics().isEmpty());
+	}
+
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.removeFirst().run();
+		}
+	}
+
+}
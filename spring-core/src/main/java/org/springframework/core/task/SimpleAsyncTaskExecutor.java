@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,7 +38,9 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  *
  * <p><b>NOTE: This implementation does not reuse threads!</b> Consider a
  * thread-pooling TaskExecutor implementation instead, in particular for
- * executing a large number of short-lived tasks.
+ * executing a large number of short-lived tasks. Alternatively, on a JDK with
+ * virtual threads, switch on {@link #setVirtualThreads "virtualThreads"}
+ * which makes a new thread per task cheap.
  *
  * @author Juergen Hoeller
  * @since 2.0
@@ -73,6 +75,8 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	@Nullable
 	private TaskDecorator taskDecorator;
 
+	private boolean virtualThreads = false;
+
 
 	/**
 	 * Create a new SimpleAsyncTaskExecutor with default thread name prefix.
@@ -132,6 +136,35 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 		this.taskDecorator = taskDecorator;
 	}
 
+	/**
+	 * Specify whether to execute tasks on virtual threads instead of
+	 * platform threads, provided that the current JDK supports them.
+	 * On older JDKs, this executor falls back to platform threads.
+	 * <p>Default is "false". Virtual threads are named according to the
+	 * {@link #setThreadNamePrefix thread name prefix}; the thread priority,
+	 * daemon flag and thread group settings do not apply to them. An external
+	 * {@link #setThreadFactory ThreadFactory} takes precedence over this flag.
+	 * <p>Thread-bound state such as {@code RequestContextHolder} or
+	 * {@code LocaleContextHolder} is not propagated to a virtual thread any
+	 * more than to a platform thread: use a {@link #setTaskDecorator TaskDecorator}
+	 * for exposing such context to the tasks.
+	 * @since 5.2
+	 * @see #isVirtualThreadSupported()
+	 */
+	public void setVirtualThreads(boolean virtual) {
+		this.virtualThreads = virtual;
+	}
+
+	/**
+	 * Return whether tasks are being executed on virtual threads, i.e. whether
+	 * {@link #setVirtualThreads "virtualThreads"} has been switched on and the
+	 * current JDK supports virtual threads.
+	 * @since 5.2
+	 */
+	public boolean isVirtualThreads() {
+		return (this.virtualThreads && isVirtualThreadSupported());
+	}
+
 	/**
 	 * Set the maximum number of parallel accesses allowed.
 	 * -1 indicates no concurrency limit at all.
@@ -237,6 +270,29 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 		thread.start();
 	}
 
+	/**
+	 * Create a new virtual thread if {@link #setVirtualThreads "virtualThreads"}
+	 * is active, or a new platform thread according to the settings of this
+	 * executor otherwise.
+	 */
+	@Override
+	public Thread createThread(Runnable runnable) {
+		if (isVirtualThreads()) {
+			return VirtualThreadDelegate.newVirtualThread(nextThreadName(), runnable);
+		}
+		return super.createThread(runnable);
+	}
+
+
+	/**
+	 * Determine whether the current JDK supports virtual threads.
+	 * @since 5.2
+	 * @see #setVirtualThreads
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VirtualThreadDelegate.isVirtualThreadSupported();
+	}
+
 
 	/**
 	 * Subclass of the general ConcurrencyThrottleSupport class,
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Internal delegate for creating virtual threads through the
+ * {@code Thread.ofVirtual()} builder API, if available on the current JDK.
+ * Accessed reflectively in order to keep compatibility with older JDKs.
+ *
+ * @author agent
+ * @since 5.2
+ * @see SimpleAsyncTaskExecutor#setVirtualThreads
+ */
+final class VirtualThreadDelegate {
+
+	@Nullable
+	private static final Method ofVirtualMethod;
+
+	@Nullable
+	private static final Method nameMethod;
+
+	@Nullable
+	private static final Method unstartedMethod;
+
+	static {
+		Method ofVirtual = ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+		Method name = null;
+		Method unstarted = null;
+		if (ofVirtual != null) {
+			try {
+				Class<?> builderClass = ClassUtils.forName(
+						"java.lang.Thread$Builder", VirtualThreadDelegate.class.getClassLoader());
+				name = builderClass.getMethod("name", String.class);
+				unstarted = builderClass.getMethod("unstarted", Runnable.class);
+				// Fails on JDKs which have virtual threads as a preview feature only
+				ReflectionUtils.invokeMethod(ofVirtual, null);
+			}
+			catch (Throwable ex) {
+				// Unusable builder API: fall back to platform threads
+				ofVirtual = null;
+			}
+		}
+		ofVirtualMethod = ofVirtual;
+		nameMethod = name;
+		unstartedMethod = unstarted;
+	}
+
+
+	private VirtualThreadDelegate() {
+	}
+
+
+	/**
+	 * Determine whether virtual threads are supported on the current JDK.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return (ofVirtualMethod != null);
+	}
+
+	/**
+	 * Create a new, not yet started virtual thread for the given task.
+	 * @param name the name of the thread
+	 * @param task the Runnable to execute
+	 * @throws IllegalStateException if virtual threads are not supported
+	 * @see #isVirtualThreadSupported()
+	 */
+	public static Thread newVirtualThread(String name, Runnable task) {
+		Assert.state(ofVirtualMethod != null && nameMethod != null && unstartedMethod != null,
+				"Virtual threads not supported on this JDK");
+		Object builder = ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+		builder = ReflectionUtils.invokeMethod(nameMethod, builder, name);
+		return (Thread) ReflectionUtils.invokeMethod(unstartedMethod, builder, task);
+	}
+
+}
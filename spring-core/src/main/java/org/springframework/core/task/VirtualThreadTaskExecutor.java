@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+/**
+ * {@link SimpleAsyncTaskExecutor} variant which executes each task on a new
+ * virtual thread where the JDK supports virtual threads, falling back to a new
+ * platform thread per task on older JDKs.
+ *
+ * <p>Suitable for tasks that spend most of their time blocked, e.g. on JDBC
+ * or remote calls, such as {@code Callable} controller return values in
+ * Spring MVC or {@code @Async} methods, without the need for sizing a pool.
+ * A {@link #setConcurrencyLimit concurrency limit} may still be specified in
+ * order to protect downstream resources.
+ *
+ * @author agent
+ * @since 5.2
+ * @see SimpleAsyncTaskExecutor#setVirtualThreads
+ * @see SimpleAsyncTaskExecutor#isVirtualThreadSupported()
+ */
+@SuppressWarnings("serial")
+public class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		super();
+		setVirtualThreads(true);
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		super(threadNamePrefix);
+		setVirtualThreads(true);
+	}
+
+}
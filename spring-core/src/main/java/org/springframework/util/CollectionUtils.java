@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,6 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -456,13 +455,13 @@ public abstract class CollectionUtils {
 
 		@Override
 		public void add(K key, @Nullable V value) {
-			List<V> values = this.map.computeIfAbsent(key, k -> new LinkedList<>());
+			List<V> values = this.map.computeIfAbsent(key, k -> new ArrayList<>(1));
 			values.add(value);
 		}
 
 		@Override
 		public void addAll(K key, List<? extends V> values) {
-			List<V> currentValues = this.map.computeIfAbsent(key, k -> new LinkedList<>());
+			List<V> currentValues = this.map.computeIfAbsent(key, k -> new ArrayList<>(values.size()));
 			currentValues.addAll(values);
 		}
 
@@ -475,7 +474,7 @@ public abstract class CollectionUtils {
 
 		@Override
 		public void set(K key, @Nullable V value) {
-			List<V> values = new LinkedList<>();
+			List<V> values = new ArrayList<>(1);
 			values.add(value);
 			this.map.put(key, values);
 		}
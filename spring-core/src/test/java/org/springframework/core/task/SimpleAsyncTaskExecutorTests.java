@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -77,6 +77,21 @@ public class SimpleAsyncTaskExecutorTests {
 		assertEquals("test", task.getThreadName());
 	}
 
+	@Test
+	public void virtualThreadsWithFallback() throws Exception {
+		final Object monitor = new Object();
+		SimpleAsyncTaskExecutor executor = new VirtualThreadTaskExecutor("virtual#");
+		assertEquals(SimpleAsyncTaskExecutor.isVirtualThreadSupported(), executor.isVirtualThreads());
+		ThreadNameHarvester task = new ThreadNameHarvester(monitor);
+		executeAndWait(executor, task, monitor);
+		assertThat(task.getThreadName(), startsWith("virtual#"));
+	}
+
+	@Test
+	public void virtualThreadsNotActiveByDefault() throws Exception {
+		assertFalse(new SimpleAsyncTaskExecutor().isVirtualThreads());
+	}
+
 	@Test
 	public void throwsExceptionWhenSuppliedWithNullRunnable() throws Exception {
 		exception.expect(IllegalArgumentException.class);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -401,16 +402,43 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 			DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss yyyy", Locale.US).withZone(GMT)
 	};
 
+	/**
+	 * Pre-computed map keys for the well-known header names declared above,
+	 * sparing the lower-case conversion of those names in the default map.
+	 */
+	private static final Map<String, String> WELL_KNOWN_HEADER_KEYS = new HashMap<>(128);
+
+	static {
+		for (String headerName : new String[] {
+				ACCEPT, ACCEPT_CHARSET, ACCEPT_ENCODING, ACCEPT_LANGUAGE, ACCEPT_RANGES,
+				ACCESS_CONTROL_ALLOW_CREDENTIALS, ACCESS_CONTROL_ALLOW_HEADERS, ACCESS_CONTROL_ALLOW_METHODS,
+				ACCESS_CONTROL_ALLOW_ORIGIN, ACCESS_CONTROL_EXPOSE_HEADERS, ACCESS_CONTROL_MAX_AGE,
+				ACCESS_CONTROL_REQUEST_HEADERS, ACCESS_CONTROL_REQUEST_METHOD, AGE, ALLOW, AUTHORIZATION,
+				CACHE_CONTROL, CONNECTION, CONTENT_ENCODING, CONTENT_DISPOSITION, CONTENT_LANGUAGE,
+				CONTENT_LENGTH, CONTENT_LOCATION, CONTENT_RANGE, CONTENT_TYPE, COOKIE, DATE, ETAG, EXPECT,
+				EXPIRES, FROM, HOST, IF_MATCH, IF_MODIFIED_SINCE, IF_NONE_MATCH, IF_RANGE,
+				IF_UNMODIFIED_SINCE, LAST_MODIFIED, LINK, LOCATION, MAX_FORWARDS, ORIGIN, PRAGMA,
+				PROXY_AUTHENTICATE, PROXY_AUTHORIZATION, RANGE, REFERER, RETRY_AFTER, SERVER, SET_COOKIE, TE,
+				TRAILER, TRANSFER_ENCODING, UPGRADE, USER_AGENT, VARY, VIA, WARNING, WWW_AUTHENTICATE}) {
+			WELL_KNOWN_HEADER_KEYS.put(headerName, headerName.toLowerCase(Locale.ENGLISH));
+		}
+	}
+
 
 	final MultiValueMap<String, String> headers;
 
+	@Nullable
+	private transient ParsedHeaderValue<MediaType> parsedContentType;
+
+	@Nullable
+	private transient ParsedHeaderValue<Long> parsedContentLength;
+
 
 	/**
 	 * Construct a new, empty instance of the {@code HttpHeaders} object.
 	 */
 	public HttpHeaders() {
-		this(CollectionUtils.toMultiValueMap(
-				new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH)));
+		this(CollectionUtils.toMultiValueMap(new HeaderNameMap()));
 	}
 
 	/**
@@ -895,7 +923,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 */
 	public long getContentLength() {
 		String value = getFirst(CONTENT_LENGTH);
-		return (value != null ? Long.parseLong(value) : -1);
+		if (value == null) {
+			return -1;
+		}
+		ParsedHeaderValue<Long> parsed = this.parsedContentLength;
+		if (parsed == null || !parsed.matches(value)) {
+			parsed = new ParsedHeaderValue<>(value, Long.parseLong(value));
+			this.parsedContentLength = parsed;
+		}
+		return parsed.getValue();
 	}
 
 	/**
@@ -921,7 +957,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	@Nullable
 	public MediaType getContentType() {
 		String value = getFirst(CONTENT_TYPE);
-		return (StringUtils.hasLength(value) ? MediaType.parseMediaType(value) : null);
+		if (!StringUtils.hasLength(value)) {
+			return null;
+		}
+		ParsedHeaderValue<MediaType> parsed = this.parsedContentType;
+		if (parsed == null || !parsed.matches(value)) {
+			parsed = new ParsedHeaderValue<>(value, MediaType.parseMediaType(value));
+			this.parsedContentType = parsed;
+		}
+		return parsed.getValue();
 	}
 
 	/**
@@ -1630,4 +1674,49 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 		}
 	}
 
+
+	/**
+	 * Case-insensitive map for a new {@code HttpHeaders} instance, with
+	 * pre-computed keys for well-known header names.
+	 */
+	@SuppressWarnings("serial")
+	private static class HeaderNameMap extends LinkedCaseInsensitiveMap<List<String>> {
+
+		public HeaderNameMap() {
+			super(8, Locale.ENGLISH);
+		}
+
+		@Override
+		protected String convertKey(String key) {
+			String wellKnownKey = WELL_KNOWN_HEADER_KEYS.get(key);
+			return (wellKnownKey != null ? wellKnownKey : super.convertKey(key));
+		}
+	}
+
+
+	/**
+	 * Parsed representation of a header value, along with the raw value it
+	 * was parsed from. Since the underlying map may be modified at any time,
+	 * the raw value is checked against the current one on each access.
+	 */
+	private static final class ParsedHeaderValue<T> {
+
+		private final String rawValue;
+
+		private final T value;
+
+		public ParsedHeaderValue(String rawValue, T value) {
+			this.rawValue = rawValue;
+			this.value = value;
+		}
+
+		public boolean matches(String rawValue) {
+			return this.rawValue.equals(rawValue);
+		}
+
+		public T getValue() {
+			return this.value;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -321,6 +322,9 @@ public class MediaType extends MimeType implements Serializable {
 
 	private static final String PARAM_QUALITY_FACTOR = "q";
 
+	private static final ConcurrentLruCache<String, List<MediaType>> cachedAcceptHeaders =
+			new ConcurrentLruCache<>(64, MediaType::parseAndSortAcceptHeader);
+
 
 	static {
 		ALL = valueOf(ALL_VALUE);
@@ -585,6 +589,32 @@ public class MediaType extends MimeType implements Serializable {
 		}
 	}
 
+	/**
+	 * Parse the given values of an {@code Accept} header into a list of
+	 * {@code MediaType} objects, {@linkplain #sortBySpecificityAndQuality sorted}
+	 * by specificity and quality.
+	 * <p>Results are cached per raw header value, as clients tend to send the
+	 * same few {@code Accept} headers over and over again.
+	 * @param headerValues the (potentially comma-separated) header values
+	 * @return an unmodifiable, sorted list of media types
+	 * @throws InvalidMediaTypeException if a media type value cannot be parsed
+	 * @since 5.2
+	 */
+	public static List<MediaType> parseAcceptHeader(@Nullable List<String> headerValues) {
+		if (CollectionUtils.isEmpty(headerValues)) {
+			return Collections.emptyList();
+		}
+		String headerValue = (headerValues.size() == 1 ? headerValues.get(0) :
+				StringUtils.collectionToDelimitedString(headerValues, ","));
+		return cachedAcceptHeaders.get(headerValue);
+	}
+
+	private static List<MediaType> parseAndSortAcceptHeader(String headerValue) {
+		List<MediaType> mediaTypes = new ArrayList<>(parseMediaTypes(headerValue));
+		sortBySpecificityAndQuality(mediaTypes);
+		return Collections.unmodifiableList(mediaTypes);
+	}
+
 	/**
 	 * Re-create the given mime types as media types.
 	 * @since 5.0
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,11 @@
 
 package org.springframework.http.client;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.util.FastByteArrayOutputStream;
 
 /**
  * Base implementation of {@link ClientHttpRequest} that buffers output
@@ -31,22 +31,33 @@ import org.springframework.http.HttpHeaders;
  */
 abstract class AbstractBufferingClientHttpRequest extends AbstractClientHttpRequest {
 
-	private ByteArrayOutputStream bufferedOutput = new ByteArrayOutputStream(1024);
+	/**
+	 * Upper bound for sizing the buffer from the Content-Length header up front,
+	 * not trusting a larger announced length before the content is written.
+	 */
+	static final int MAX_PRESIZED_CAPACITY = 1024 * 1024;
+
+	private FastByteArrayOutputStream bufferedOutput = new FastByteArrayOutputStream(1024);
 
 
 	@Override
 	protected OutputStream getBodyInternal(HttpHeaders headers) throws IOException {
+		long contentLength = headers.getContentLength();
+		if (contentLength > 0 && this.bufferedOutput.size() == 0) {
+			// Size the buffer for the announced content, so that it does not have to be copied
+			this.bufferedOutput.resize((int) Math.min(contentLength, MAX_PRESIZED_CAPACITY));
+		}
 		return this.bufferedOutput;
 	}
 
 	@Override
 	protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
-		byte[] bytes = this.bufferedOutput.toByteArray();
+		byte[] bytes = this.bufferedOutput.toByteArrayUnsafe();
 		if (headers.getContentLength() < 0) {
 			headers.setContentLength(bytes.length);
 		}
 		ClientHttpResponse result = executeInternal(headers, bytes);
-		this.bufferedOutput = new ByteArrayOutputStream(0);
+		this.bufferedOutput = new FastByteArrayOutputStream(1);
 		return result;
 	}
 
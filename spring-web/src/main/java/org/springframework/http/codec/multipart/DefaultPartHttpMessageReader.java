@@ -0,0 +1,256 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.log.LogFormatUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.LoggingCodecSupport;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Default {@code HttpMessageReader} for parsing {@code "multipart/form-data"}
+ * requests to a stream of {@link Part Parts}, in the order in which they
+ * appear in the request body, without depending on a third-party library.
+ *
+ * <p>By default, the content of each part is stored in memory up to the
+ * {@link #setMaxInMemorySize "maxInMemorySize"}; larger file parts are
+ * written to a temporary file in the {@link #setFileStorageDirectory
+ * "fileStorageDirectory"}, while larger form fields are rejected.
+ * Temporary files are only created once that threshold is exceeded. They are
+ * removed when {@linkplain FilePart#transferTo(Path) transferred} or
+ * {@linkplain Part#delete() deleted}, which happens automatically for parts
+ * obtained through {@code ServerWebExchange#getMultipartData()} once the
+ * request has been handled, and right away when reading the request fails.
+ *
+ * <p>In {@link #setStreaming streaming} mode, parts are emitted as soon as
+ * their headers have been parsed, with their content streamed straight from
+ * the request body. Nothing is stored in that case, and backpressure from the
+ * content subscriber propagates to the request body. The content of each part
+ * then needs to be consumed (or its subscription cancelled) before the next
+ * part is emitted, which rules out aggregation via
+ * {@link MultipartHttpMessageReader}.
+ *
+ * @author agent
+ * @since 5.2
+ * @see MultipartHttpMessageReader
+ * @see SynchronossPartHttpMessageReader
+ */
+public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements HttpMessageReader<Part> {
+
+	private static final String FILE_STORAGE_DIRECTORY_PREFIX = "spring-multipart-";
+
+
+	private int maxHeadersSize = 8 * 1024;
+
+	private int maxInMemorySize = 256 * 1024;
+
+	private long maxDiskUsagePerPart = -1;
+
+	private boolean streaming;
+
+	private Scheduler blockingOperationScheduler = Schedulers.elastic();
+
+	@Nullable
+	private volatile Path fileStorageDirectory;
+
+
+	/**
+	 * Set the maximum size (in bytes) of the headers of each part.
+	 * <p>By default, this is set to 8 KB.
+	 */
+	public void setMaxHeadersSize(int byteCount) {
+		this.maxHeadersSize = byteCount;
+	}
+
+	/**
+	 * Return the {@link #setMaxHeadersSize configured} maximum headers size.
+	 */
+	public int getMaxHeadersSize() {
+		return this.maxHeadersSize;
+	}
+
+	/**
+	 * Set the maximum size (in bytes) of the content of a part that is kept
+	 * in memory. File parts exceeding this size are written to a temporary
+	 * file, while form fields exceeding it result in a {@link DecodingException}.
+	 * <p>By default, this is set to 256 KB. Not used in streaming mode.
+	 */
+	public void setMaxInMemorySize(int byteCount) {
+		this.maxInMemorySize = byteCount;
+	}
+
+	/**
+	 * Return the {@link #setMaxInMemorySize configured} maximum in-memory size.
+	 */
+	public int getMaxInMemorySize() {
+		return this.maxInMemorySize;
+	}
+
+	/**
+	 * Set the maximum size (in bytes) of a part written to a temporary file.
+	 * Larger parts result in a {@link DecodingException}.
+	 * <p>By default, this is set to -1, i.e. unlimited. Not used in streaming mode.
+	 */
+	public void setMaxDiskUsagePerPart(long byteCount) {
+		this.maxDiskUsagePerPart = byteCount;
+	}
+
+	/**
+	 * Return the {@link #setMaxDiskUsagePerPart configured} maximum disk usage per part.
+	 */
+	public long getMaxDiskUsagePerPart() {
+		return this.maxDiskUsagePerPart;
+	}
+
+	/**
+	 * Set the directory to write temporary files for large parts to.
+	 * <p>By default, a new directory with a "spring-multipart-" prefix is
+	 * created in the system temporary directory when first needed. Files are
+	 * deleted when {@linkplain FilePart#transferTo(Path) transferred} or via
+	 * {@link Part#delete()}; applications that consume parts from this reader
+	 * directly, rather than through {@code ServerWebExchange#getMultipartData()},
+	 * need to call the latter for parts they do not transfer.
+	 */
+	public void setFileStorageDirectory(Path fileStorageDirectory) {
+		Assert.notNull(fileStorageDirectory, "FileStorageDirectory must not be null");
+		this.fileStorageDirectory = fileStorageDirectory;
+	}
+
+	/**
+	 * Set the scheduler to use for blocking file operations.
+	 * <p>By default, this is {@link Schedulers#elastic()}.
+	 */
+	public void setBlockingOperationScheduler(Scheduler blockingOperationScheduler) {
+		Assert.notNull(blockingOperationScheduler, "BlockingOperationScheduler must not be null");
+		this.blockingOperationScheduler = blockingOperationScheduler;
+	}
+
+	/**
+	 * Specify whether to stream the content of parts straight from the request
+	 * body, rather than storing it in memory or in temporary files.
+	 * <p>By default, this is set to {@code false}. Note that in streaming mode,
+	 * the content of each part has to be consumed in order; this reader can
+	 * then not be used with {@link MultipartHttpMessageReader}.
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Return whether the content of parts is streamed.
+	 */
+	public boolean isStreaming() {
+		return this.streaming;
+	}
+
+
+	@Override
+	public List<MediaType> getReadableMediaTypes() {
+		return Collections.singletonList(MediaType.MULTIPART_FORM_DATA);
+	}
+
+	@Override
+	public boolean canRead(ResolvableType elementType, @Nullable MediaType mediaType) {
+		return Part.class.equals(elementType.toClass()) &&
+				(mediaType == null || MediaType.MULTIPART_FORM_DATA.isCompatibleWith(mediaType));
+	}
+
+
+	@Override
+	public Flux<Part> read(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+		return Flux.defer(() -> {
+			MediaType contentType = message.getHeaders().getContentType();
+			byte[] boundary = getBoundary(contentType);
+			if (boundary == null) {
+				return Flux.error(new DecodingException(
+						"No multipart boundary found in Content-Type: \"" + contentType + "\""));
+			}
+			Charset headersCharset = (contentType.getCharset() != null ?
+					contentType.getCharset() : StandardCharsets.UTF_8);
+			Flux<MultipartParser.Token> tokens =
+					MultipartParser.parse(message.getBody(), boundary, this.maxHeadersSize, headersCharset);
+			return PartGenerator.createParts(tokens, this.maxInMemorySize, this.maxDiskUsagePerPart,
+					this.streaming, this::getFileStorageDirectory, this.blockingOperationScheduler);
+		}).doOnNext(part -> {
+			if (!Hints.isLoggingSuppressed(hints)) {
+				LogFormatUtils.traceDebug(logger, traceOn -> Hints.getLogPrefix(hints) + "Parsed " +
+						(isEnableLoggingRequestDetails() ?
+								LogFormatUtils.formatValue(part, !traceOn) :
+								"parts '" + part.name() + "' (content masked)"));
+			}
+		});
+	}
+
+	@Override
+	public Mono<Part> readMono(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+		return Mono.error(new UnsupportedOperationException("Cannot read multipart request body into single Part"));
+	}
+
+	@Nullable
+	private static byte[] getBoundary(@Nullable MediaType contentType) {
+		if (contentType != null) {
+			String boundary = contentType.getParameter("boundary");
+			if (boundary != null) {
+				int length = boundary.length();
+				if (length > 2 && boundary.charAt(0) == '"' && boundary.charAt(length - 1) == '"') {
+					boundary = boundary.substring(1, length - 1);
+				}
+				return boundary.getBytes(StandardCharsets.ISO_8859_1);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the directory for temporary files, creating the default one if
+	 * necessary. Called from the blocking operation scheduler.
+	 */
+	private Path getFileStorageDirectory() throws IOException {
+		Path directory = this.fileStorageDirectory;
+		if (directory == null) {
+			synchronized (this) {
+				directory = this.fileStorageDirectory;
+				if (directory == null) {
+					directory = Files.createTempDirectory(FILE_STORAGE_DIRECTORY_PREFIX);
+					this.fileStorageDirectory = directory;
+				}
+			}
+		}
+		return directory;
+	}
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+
+/**
+ * Default implementations of {@link Part} and its subtypes, as created by the
+ * {@link PartGenerator}, with the content held in memory, in a file, or
+ * streamed from the request body.
+ *
+ * @author agent
+ * @since 5.2
+ */
+abstract class DefaultParts {
+
+	private static final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private static final OpenOption[] FILE_CHANNEL_OPTIONS =
+			{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE};
+
+
+	/**
+	 * Create a new {@link FormFieldPart} with the given content.
+	 * @param headers the part headers
+	 * @param content the chunks of the form field value
+	 * @return the form field part
+	 */
+	public static FormFieldPart formFieldPart(HttpHeaders headers, List<byte[]> content) {
+		int length = 0;
+		for (byte[] bytes : content) {
+			length += bytes.length;
+		}
+		byte[] value = new byte[length];
+		int position = 0;
+		for (byte[] bytes : content) {
+			System.arraycopy(bytes, 0, value, position, bytes.length);
+			position += bytes.length;
+		}
+		return new DefaultFormFieldPart(headers, value);
+	}
+
+	/**
+	 * Create a new {@link Part} or {@link FilePart} with the given content,
+	 * depending on whether the headers specify a filename.
+	 * @param headers the part headers
+	 * @param content the content of the part
+	 * @return the part
+	 */
+	public static Part part(HttpHeaders headers, Content content) {
+		String filename = headers.getContentDisposition().getFilename();
+		return (filename != null ? new DefaultFilePart(headers, filename, content) : new DefaultPart(headers, content));
+	}
+
+	/**
+	 * Create a new {@link Part} or {@link FilePart} with content streamed from
+	 * the request body, depending on whether the headers specify a filename.
+	 * @param headers the part headers
+	 * @param content the content of the part
+	 * @return the part
+	 */
+	public static Part streamingPart(HttpHeaders headers, Flux<DataBuffer> content) {
+		return part(headers, new StreamingContent(content));
+	}
+
+
+	/**
+	 * Abstraction over the different sources of part content.
+	 */
+	interface Content {
+
+		Flux<DataBuffer> content();
+
+		Mono<Void> transferTo(Path dest);
+
+		Mono<Void> delete();
+	}
+
+
+	/**
+	 * Content held in memory.
+	 */
+	static final class MemoryContent implements Content {
+
+		private final List<byte[]> content;
+
+		private final Scheduler scheduler;
+
+		public MemoryContent(List<byte[]> content, Scheduler scheduler) {
+			this.content = content;
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.fromIterable(this.content).map(bufferFactory::wrap);
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.<Void>fromCallable(() -> {
+				try (FileChannel channel = FileChannel.open(dest, FILE_CHANNEL_OPTIONS)) {
+					for (byte[] bytes : this.content) {
+						ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+						while (byteBuffer.hasRemaining()) {
+							channel.write(byteBuffer);
+						}
+					}
+				}
+				return null;
+			}).subscribeOn(this.scheduler);
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.empty();
+		}
+	}
+
+
+	/**
+	 * Content stored in a temporary file, which is removed when the content is
+	 * {@linkplain #transferTo transferred} or {@linkplain #delete deleted}.
+	 */
+	static final class FileContent implements Content {
+
+		private final Path file;
+
+		private final Scheduler scheduler;
+
+		public FileContent(Path file, Scheduler scheduler) {
+			this.file = file;
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return DataBufferUtils.readByteChannel(() -> Files.newByteChannel(this.file, StandardOpenOption.READ),
+					bufferFactory, 4096).subscribeOn(this.scheduler);
+		}
+
+		/**
+		 * Move the temporary file to the given destination, which is a plain
+		 * rename on the same file system. The content is no longer available
+		 * from this part afterwards.
+		 */
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.<Void>fromCallable(() -> {
+				Files.move(this.file, dest, StandardCopyOption.REPLACE_EXISTING);
+				return null;
+			}).subscribeOn(this.scheduler);
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.<Void>fromCallable(() -> {
+				Files.deleteIfExists(this.file);
+				return null;
+			}).subscribeOn(this.scheduler);
+		}
+	}
+
+
+	/**
+	 * Content streamed from the request body; may only be consumed once.
+	 */
+	static final class StreamingContent implements Content {
+
+		private final Flux<DataBuffer> content;
+
+		public StreamingContent(Flux<DataBuffer> content) {
+			this.content = content;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return this.content;
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.using(() -> AsynchronousFileChannel.open(dest, FILE_CHANNEL_OPTIONS),
+					channel -> DataBufferUtils.write(this.content, channel).map(DataBufferUtils::release).then(),
+					channel -> {
+						try {
+							channel.close();
+						}
+						catch (IOException ignored) {
+						}
+					});
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.empty();
+		}
+	}
+
+
+	private abstract static class AbstractPart implements Part {
+
+		private final HttpHeaders headers;
+
+		protected AbstractPart(HttpHeaders headers) {
+			Assert.notNull(headers, "HttpHeaders is required");
+			this.headers = headers;
+		}
+
+		@Override
+		public String name() {
+			String name = this.headers.getContentDisposition().getName();
+			Assert.state(name != null, "No part name");
+			return name;
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			return this.headers;
+		}
+	}
+
+
+	private static class DefaultPart extends AbstractPart {
+
+		private final Content content;
+
+		public DefaultPart(HttpHeaders headers, Content content) {
+			super(headers);
+			this.content = content;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return this.content.content();
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return this.content.delete();
+		}
+
+		protected Content getContent() {
+			return this.content;
+		}
+
+		@Override
+		public String toString() {
+			return "Part '" + name() + "', headers=" + headers();
+		}
+	}
+
+
+	private static final class DefaultFilePart extends DefaultPart implements FilePart {
+
+		private final String filename;
+
+		public DefaultFilePart(HttpHeaders headers, String filename, Content content) {
+			super(headers, content);
+			this.filename = filename;
+		}
+
+		@Override
+		public String filename() {
+			return this.filename;
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return getContent().transferTo(dest);
+		}
+
+		@Override
+		public String toString() {
+			return "Part '" + name() + "', filename='" + this.filename + "'";
+		}
+	}
+
+
+	private static final class DefaultFormFieldPart extends AbstractPart implements FormFieldPart {
+
+		private final byte[] content;
+
+		public DefaultFormFieldPart(HttpHeaders headers, byte[] content) {
+			super(headers);
+			this.content = content;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.defer(() -> Flux.just(bufferFactory.wrap(this.content)));
+		}
+
+		@Override
+		public String value() {
+			return new String(this.content, getCharset());
+		}
+
+		private Charset getCharset() {
+			MediaType contentType = headers().getContentType();
+			Charset charset = (contentType != null ? contentType.getCharset() : null);
+			return (charset != null ? charset : StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String toString() {
+			return "Part '" + name() + "=" + value() + "'";
+		}
+	}
+
+}
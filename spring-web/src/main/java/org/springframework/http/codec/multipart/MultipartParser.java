@@ -0,0 +1,320 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Parser that turns a stream of {@link DataBuffer DataBuffers} into a stream
+ * of {@link Token Tokens}: a headers token at the start of each part, followed
+ * by body tokens with the content of that part. Body tokens are slices of the
+ * input buffers, so the content of a part is never copied or aggregated.
+ *
+ * <p>The boundary is located with the Knuth-Morris-Pratt algorithm, carrying
+ * the match state over from one buffer to the next so that delimiters split
+ * across buffers are found without holding on to previous buffers.
+ *
+ * @author agent
+ * @since 5.2
+ * @see PartGenerator
+ */
+final class MultipartParser {
+
+	private static final byte CR = '\r';
+
+	private static final byte LF = '\n';
+
+	private static final byte HYPHEN = '-';
+
+	private static final int CR_LF = (CR << 8) | LF;
+
+	private static final int CR_LF_CR_LF = (CR_LF << 16) | CR_LF;
+
+
+	private final byte[] delimiter;
+
+	private final int[] delimiterTable;
+
+	private final int maxHeadersSize;
+
+	private final Charset headersCharset;
+
+	private State state = State.PREAMBLE;
+
+	// The first boundary is not necessarily preceded by CRLF:
+	// start out as if the CRLF of the delimiter had been matched already
+	private int matchCount = 2;
+
+	private final byte[] delimiterSuffix = new byte[2];
+
+	private int delimiterSuffixCount;
+
+	private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+
+	private int headerTail;
+
+
+	private MultipartParser(byte[] boundary, int maxHeadersSize, Charset headersCharset) {
+		this.delimiter = new byte[boundary.length + 4];
+		this.delimiter[0] = CR;
+		this.delimiter[1] = LF;
+		this.delimiter[2] = HYPHEN;
+		this.delimiter[3] = HYPHEN;
+		System.arraycopy(boundary, 0, this.delimiter, 4, boundary.length);
+		this.delimiterTable = failureTable(this.delimiter);
+		this.maxHeadersSize = maxHeadersSize;
+		this.headersCharset = headersCharset;
+	}
+
+
+	/**
+	 * Parse the given stream of data buffers into a stream of tokens.
+	 * @param buffers the input buffers, released by this parser
+	 * @param boundary the multipart boundary
+	 * @param maxHeadersSize the maximum size of the headers of each part
+	 * @param headersCharset the charset to decode part headers with
+	 * @return the tokens of the multipart message
+	 */
+	public static Flux<Token> parse(Flux<DataBuffer> buffers, byte[] boundary, int maxHeadersSize,
+			Charset headersCharset) {
+
+		return Flux.defer(() -> {
+			MultipartParser parser = new MultipartParser(boundary, maxHeadersSize, headersCharset);
+			return buffers.concatMapIterable(parser::parse).concatWith(Flux.defer(parser::complete));
+		});
+	}
+
+	private static int[] failureTable(byte[] pattern) {
+		int[] table = new int[pattern.length];
+		int count = 0;
+		for (int i = 1; i < pattern.length; i++) {
+			while (count > 0 && pattern[i] != pattern[count]) {
+				count = table[count - 1];
+			}
+			if (pattern[i] == pattern[count]) {
+				count++;
+			}
+			table[i] = count;
+		}
+		return table;
+	}
+
+
+	private List<Token> parse(DataBuffer buffer) {
+		List<Token> tokens = new ArrayList<>(2);
+		try {
+			int position = buffer.readPosition();
+			int end = buffer.writePosition();
+			while (position < end) {
+				switch (this.state) {
+					case PREAMBLE:
+					case BODY:
+						position = parseBody(buffer, position, end, tokens);
+						break;
+					case DELIMITER_SUFFIX:
+						position = parseDelimiterSuffix(buffer, position, end);
+						break;
+					case HEADERS:
+						position = parseHeaders(buffer, position, end, tokens);
+						break;
+					default:
+						position = end;
+				}
+			}
+			return tokens;
+		}
+		catch (RuntimeException ex) {
+			tokens.forEach(Token::release);
+			throw ex;
+		}
+		finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	private int parseBody(DataBuffer buffer, int start, int end, List<Token> tokens) {
+		int carried = this.matchCount;
+		int count = carried;
+		for (int i = start; i < end; i++) {
+			byte b = buffer.getByte(i);
+			while (count > 0 && b != this.delimiter[count]) {
+				count = this.delimiterTable[count - 1];
+			}
+			if (b == this.delimiter[count]) {
+				count++;
+				if (count == this.delimiter.length) {
+					addBody(buffer, start, i + 1 - count, carried, tokens);
+					this.matchCount = 0;
+					this.state = State.DELIMITER_SUFFIX;
+					return i + 1;
+				}
+			}
+		}
+		addBody(buffer, start, end - count, carried, tokens);
+		this.matchCount = count;
+		return end;
+	}
+
+	/**
+	 * Add a body token for the content before the given delimiter (candidate)
+	 * position. Bytes held back from previous buffers as a partial delimiter
+	 * match are known to equal the start of the delimiter, so they can be
+	 * restored from the delimiter itself.
+	 */
+	private void addBody(DataBuffer buffer, int start, int delimiterStart, int carried, List<Token> tokens) {
+		if (this.state != State.BODY) {
+			return;
+		}
+		int carriedBodyCount = carried + Math.min(delimiterStart - start, 0);
+		if (carriedBodyCount > 0) {
+			byte[] bytes = Arrays.copyOf(this.delimiter, carriedBodyCount);
+			tokens.add(Token.body(buffer.factory().wrap(bytes)));
+		}
+		if (delimiterStart > start) {
+			DataBufferUtils.retain(buffer);
+			tokens.add(Token.body(buffer.slice(start, delimiterStart - start)));
+		}
+	}
+
+	private int parseDelimiterSuffix(DataBuffer buffer, int start, int end) {
+		for (int i = start; i < end; i++) {
+			byte b = buffer.getByte(i);
+			if (this.delimiterSuffixCount == 0 && (b == ' ' || b == '\t')) {
+				continue;  // transport padding
+			}
+			this.delimiterSuffix[this.delimiterSuffixCount++] = b;
+			if (this.delimiterSuffixCount == 2) {
+				this.delimiterSuffixCount = 0;
+				if (this.delimiterSuffix[0] == HYPHEN && this.delimiterSuffix[1] == HYPHEN) {
+					this.state = State.EPILOGUE;
+				}
+				else if (this.delimiterSuffix[0] == CR && this.delimiterSuffix[1] == LF) {
+					this.state = State.HEADERS;
+				}
+				else {
+					throw new DecodingException("Invalid multipart boundary delimiter");
+				}
+				return i + 1;
+			}
+		}
+		return end;
+	}
+
+	private int parseHeaders(DataBuffer buffer, int start, int end, List<Token> tokens) {
+		for (int i = start; i < end; i++) {
+			byte b = buffer.getByte(i);
+			this.headerBytes.write(b);
+			if (this.headerBytes.size() > this.maxHeadersSize) {
+				throw new DecodingException(
+						"Part headers exceeded the maximum size of " + this.maxHeadersSize + " bytes");
+			}
+			this.headerTail = (this.headerTail << 8) | (b & 0xFF);
+			if (this.headerTail == CR_LF_CR_LF ||
+					(this.headerBytes.size() == 2 && this.headerTail == CR_LF)) {
+				tokens.add(Token.headers(parseHeaders(this.headerBytes.toByteArray())));
+				this.headerBytes.reset();
+				this.headerTail = 0;
+				this.state = State.BODY;
+				return i + 1;
+			}
+		}
+		return end;
+	}
+
+	private HttpHeaders parseHeaders(byte[] bytes) {
+		HttpHeaders headers = new HttpHeaders();
+		for (String line : new String(bytes, this.headersCharset).split("\r\n")) {
+			int index = line.indexOf(':');
+			if (index > 0) {
+				headers.add(line.substring(0, index).trim(), line.substring(index + 1).trim());
+			}
+		}
+		return headers;
+	}
+
+	private Flux<Token> complete() {
+		if (this.state != State.EPILOGUE) {
+			return Flux.error(new DecodingException("Could not find end of multipart body"));
+		}
+		return Flux.empty();
+	}
+
+
+	private enum State {
+
+		PREAMBLE, DELIMITER_SUFFIX, HEADERS, BODY, EPILOGUE
+	}
+
+
+	/**
+	 * Output of the parser: either the headers of a new part,
+	 * or a buffer with (some of) the content of the current part.
+	 */
+	static final class Token {
+
+		@Nullable
+		private final HttpHeaders headers;
+
+		@Nullable
+		private final DataBuffer buffer;
+
+		private Token(@Nullable HttpHeaders headers, @Nullable DataBuffer buffer) {
+			this.headers = headers;
+			this.buffer = buffer;
+		}
+
+		static Token headers(HttpHeaders headers) {
+			return new Token(headers, null);
+		}
+
+		static Token body(DataBuffer buffer) {
+			return new Token(null, buffer);
+		}
+
+		public boolean isHeaders() {
+			return (this.headers != null);
+		}
+
+		public HttpHeaders headers() {
+			Assert.state(this.headers != null, "Not a headers token");
+			return this.headers;
+		}
+
+		public DataBuffer buffer() {
+			Assert.state(this.buffer != null, "Not a body token");
+			return this.buffer;
+		}
+
+		void release() {
+			DataBufferUtils.release(this.buffer);
+		}
+	}
+
+}
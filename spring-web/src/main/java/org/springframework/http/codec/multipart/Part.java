@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.http.codec.multipart;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -57,4 +58,18 @@ public interface Part {
 	 */
 	Flux<DataBuffer> content();
 
+	/**
+	 * Delete any temporary storage backing the content of this part, such
+	 * as a file written to disk by {@link DefaultPartHttpMessageReader}.
+	 * <p>Parts obtained through
+	 * {@link org.springframework.web.server.ServerWebExchange#getMultipartData()}
+	 * are deleted automatically once the request has been handled.
+	 * <p>The default implementation returns an empty {@code Mono}.
+	 * @return completion signal once the storage has been deleted
+	 * @since 5.2
+	 */
+	default Mono<Void> delete() {
+		return Mono.empty();
+	}
+
 }
@@ -0,0 +1,595 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Subscribes to the {@link MultipartParser.Token Tokens} of a multipart
+ * message and generates the corresponding {@link Part Parts}.
+ *
+ * <p>Tokens are requested one at a time. In streaming mode, the next token is
+ * only requested on demand from the subscriber of the current part's content,
+ * so that backpressure propagates to the request body. Otherwise, the content
+ * of each part is stored in memory up to the configured maximum, and in a file
+ * beyond that, with file writes happening on the given blocking scheduler.
+ *
+ * <p>Temporary files are owned by the emitted parts once their content is
+ * complete. If the tokens end in an error, the files of all parts are deleted;
+ * if the parts are cancelled, the file of the part being written is deleted.
+ * Files are closed and deleted on the blocking scheduler as well, never on
+ * the thread that cancels or signals the error.
+ *
+ * @author agent
+ * @since 5.2
+ * @see DefaultPartHttpMessageReader
+ */
+final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
+
+	private final AtomicReference<State> state = new AtomicReference<>(new InitialState());
+
+	private final AtomicBoolean tokenRequested = new AtomicBoolean();
+
+	private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean aborted;
+
+	private final FluxSink<Part> sink;
+
+	private final int maxInMemorySize;
+
+	private final long maxDiskUsagePerPart;
+
+	private final boolean streaming;
+
+	private final Callable<Path> fileStorageDirectory;
+
+	private final Scheduler blockingOperationScheduler;
+
+
+	private PartGenerator(FluxSink<Part> sink, int maxInMemorySize, long maxDiskUsagePerPart,
+			boolean streaming, Callable<Path> fileStorageDirectory, Scheduler blockingOperationScheduler) {
+
+		this.sink = sink;
+		this.maxInMemorySize = maxInMemorySize;
+		this.maxDiskUsagePerPart = maxDiskUsagePerPart;
+		this.streaming = streaming;
+		this.fileStorageDirectory = fileStorageDirectory;
+		this.blockingOperationScheduler = blockingOperationScheduler;
+	}
+
+
+	/**
+	 * Generate parts from the given tokens.
+	 * @param tokens the tokens produced by the {@link MultipartParser}
+	 * @param maxInMemorySize the maximum number of bytes stored in memory per part
+	 * @param maxDiskUsagePerPart the maximum number of bytes stored on disk per part,
+	 * or -1 for no limit
+	 * @param streaming whether to stream the content of parts instead of storing it
+	 * @param fileStorageDirectory supplier of the directory to store files in
+	 * @param blockingOperationScheduler the scheduler for file operations
+	 * @return the parts of the multipart message
+	 */
+	public static Flux<Part> createParts(Flux<MultipartParser.Token> tokens, int maxInMemorySize,
+			long maxDiskUsagePerPart, boolean streaming, Callable<Path> fileStorageDirectory,
+			Scheduler blockingOperationScheduler) {
+
+		return Flux.create(sink -> {
+			PartGenerator generator = new PartGenerator(sink, maxInMemorySize, maxDiskUsagePerPart,
+					streaming, fileStorageDirectory, blockingOperationScheduler);
+			sink.onDispose(generator);
+			tokens.subscribe(generator);
+		});
+	}
+
+
+	@Override
+	protected void hookOnSubscribe(Subscription subscription) {
+		requestToken();
+	}
+
+	@Override
+	protected void hookOnNext(MultipartParser.Token token) {
+		this.tokenRequested.set(false);
+		if (token.isHeaders()) {
+			this.state.get().partComplete(false);
+			newPart(token.headers());
+		}
+		else {
+			this.state.get().body(token.buffer());
+		}
+	}
+
+	@Override
+	protected void hookOnError(Throwable ex) {
+		this.aborted = true;
+		this.state.get().error(ex);
+		deleteFiles();
+		this.sink.error(ex);
+	}
+
+	@Override
+	protected void hookOnCancel() {
+		this.aborted = true;
+		this.state.get().dispose();
+	}
+
+	@Override
+	protected void hookOnComplete() {
+		this.state.get().partComplete(true);
+	}
+
+	private void requestToken() {
+		if (this.tokenRequested.compareAndSet(false, true)) {
+			request(1);
+		}
+	}
+
+	private void fail(Throwable ex) {
+		cancel();
+		this.state.get().error(ex);
+		deleteFiles();
+		this.sink.error(ex);
+	}
+
+	private void deleteFiles() {
+		if (this.files.isEmpty()) {
+			return;
+		}
+		this.blockingOperationScheduler.schedule(() -> {
+			Path file;
+			while ((file = this.files.poll()) != null) {
+				try {
+					Files.deleteIfExists(file);
+				}
+				catch (IOException ignored) {
+				}
+			}
+		});
+	}
+
+	private void newPart(HttpHeaders headers) {
+		if (!StringUtils.hasLength(headers.getContentDisposition().getName())) {
+			fail(new DecodingException("Part has no name in Content-Disposition header: " + headers));
+		}
+		else if (this.streaming) {
+			StreamingState streamingState = new StreamingState(headers);
+			this.state.set(streamingState);
+			this.sink.next(DefaultParts.streamingPart(headers, streamingState.content()));
+		}
+		else {
+			this.state.set(new InMemoryState(headers));
+			requestToken();
+		}
+	}
+
+	private static boolean isFormField(HttpHeaders headers) {
+		MediaType contentType = headers.getContentType();
+		return (headers.getContentDisposition().getFilename() == null &&
+				(contentType == null || MediaType.TEXT_PLAIN.isCompatibleWith(contentType)));
+	}
+
+
+	/**
+	 * Handling of the tokens of the current part.
+	 */
+	private interface State {
+
+		void body(DataBuffer buffer);
+
+		void partComplete(boolean finalPart);
+
+		void error(Throwable ex);
+
+		default void dispose() {
+		}
+	}
+
+
+	/**
+	 * State before the headers of the first part.
+	 */
+	private final class InitialState implements State {
+
+		@Override
+		public void body(DataBuffer buffer) {
+			DataBufferUtils.release(buffer);
+			requestToken();
+		}
+
+		@Override
+		public void partComplete(boolean finalPart) {
+			if (finalPart) {
+				sink.complete();
+			}
+		}
+
+		@Override
+		public void error(Throwable ex) {
+		}
+	}
+
+
+	/**
+	 * Relays the content of the current part to the subscriber of its content,
+	 * requesting the next token only when that subscriber has demand.
+	 */
+	private final class StreamingState implements State {
+
+		private final HttpHeaders headers;
+
+		private final AtomicBoolean subscribed = new AtomicBoolean();
+
+		@Nullable
+		private volatile FluxSink<DataBuffer> contentSink;
+
+		private volatile boolean draining;
+
+		private volatile boolean completed;
+
+		@Nullable
+		private volatile Throwable error;
+
+		public StreamingState(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		public Flux<DataBuffer> content() {
+			return Flux.create(contentSink -> {
+				if (!this.subscribed.compareAndSet(false, true)) {
+					contentSink.error(new IllegalStateException(
+							"The content of part '" + this.headers.getContentDisposition().getName() +
+									"' can only be consumed once"));
+					return;
+				}
+				this.contentSink = contentSink;
+				contentSink.onCancel(() -> {
+					this.draining = true;
+					requestToken();
+				});
+				Throwable error = this.error;
+				if (error != null) {
+					contentSink.error(error);
+				}
+				else if (this.completed) {
+					contentSink.complete();
+				}
+				else {
+					contentSink.onRequest(n -> requestToken());
+				}
+			});
+		}
+
+		@Override
+		public void body(DataBuffer buffer) {
+			FluxSink<DataBuffer> contentSink = this.contentSink;
+			if (this.draining || contentSink == null) {
+				DataBufferUtils.release(buffer);
+				requestToken();
+				return;
+			}
+			contentSink.next(buffer);
+			if (contentSink.requestedFromDownstream() > 0) {
+				requestToken();
+			}
+		}
+
+		@Override
+		public void partComplete(boolean finalPart) {
+			this.completed = true;
+			FluxSink<DataBuffer> contentSink = this.contentSink;
+			if (contentSink != null) {
+				contentSink.complete();
+			}
+			if (finalPart) {
+				sink.complete();
+			}
+		}
+
+		@Override
+		public void error(Throwable ex) {
+			this.error = ex;
+			FluxSink<DataBuffer> contentSink = this.contentSink;
+			if (contentSink != null) {
+				contentSink.error(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Stores the content of the current part in memory, switching over
+	 * to a {@link DiskState} once the maximum in-memory size is exceeded.
+	 */
+	private final class InMemoryState implements State {
+
+		private final HttpHeaders headers;
+
+		private final List<byte[]> content = new ArrayList<>();
+
+		private long byteCount;
+
+		public InMemoryState(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		@Override
+		public void body(DataBuffer buffer) {
+			this.byteCount += buffer.readableByteCount();
+			if (this.byteCount > maxInMemorySize) {
+				if (isFormField(this.headers)) {
+					DataBufferUtils.release(buffer);
+					fail(new DecodingException("Form field '" + this.headers.getContentDisposition().getName() +
+							"' exceeded the maximum in-memory size of " + maxInMemorySize + " bytes"));
+				}
+				else {
+					DiskState diskState = new DiskState(this.headers, this.byteCount);
+					state.set(diskState);
+					diskState.createFile(this.content, buffer);
+				}
+				return;
+			}
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			this.content.add(bytes);
+			requestToken();
+		}
+
+		@Override
+		public void partComplete(boolean finalPart) {
+			if (isFormField(this.headers)) {
+				sink.next(DefaultParts.formFieldPart(this.headers, this.content));
+			}
+			else {
+				sink.next(DefaultParts.part(this.headers,
+						new DefaultParts.MemoryContent(this.content, blockingOperationScheduler)));
+			}
+			if (finalPart) {
+				sink.complete();
+			}
+		}
+
+		@Override
+		public void error(Throwable ex) {
+			this.content.clear();
+		}
+	}
+
+
+	/**
+	 * Writes the content of the current part to a file, one token at a time,
+	 * on the blocking operation scheduler.
+	 */
+	private final class DiskState implements State {
+
+		private final HttpHeaders headers;
+
+		private long byteCount;
+
+		@Nullable
+		private volatile Path file;
+
+		@Nullable
+		private volatile FileChannel channel;
+
+		private boolean writing;
+
+		private boolean completionPending;
+
+		private boolean finalPartPending;
+
+		private volatile boolean disposed;
+
+		public DiskState(HttpHeaders headers, long byteCount) {
+			this.headers = headers;
+			this.byteCount = byteCount;
+		}
+
+		public void createFile(List<byte[]> content, DataBuffer buffer) {
+			if (!checkDiskUsage(buffer)) {
+				return;
+			}
+			write(buffer, () -> {
+				Path directory = fileStorageDirectory.call();
+				Files.createDirectories(directory);
+				Path file = Files.createTempFile(directory, null, ".multipart");
+				this.file = file;
+				files.add(file);
+				FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+				this.channel = channel;
+				if (this.disposed) {
+					// Disposed while the file was being created
+					closeAndDeleteFile();
+					return;
+				}
+				for (byte[] bytes : content) {
+					writeFully(channel, ByteBuffer.wrap(bytes));
+				}
+				content.clear();
+				writeFully(channel, buffer.asByteBuffer());
+			});
+		}
+
+		@Override
+		public void body(DataBuffer buffer) {
+			this.byteCount += buffer.readableByteCount();
+			if (!checkDiskUsage(buffer)) {
+				return;
+			}
+			write(buffer, () -> {
+				FileChannel channel = this.channel;
+				if (channel != null) {
+					writeFully(channel, buffer.asByteBuffer());
+				}
+			});
+		}
+
+		private boolean checkDiskUsage(DataBuffer buffer) {
+			if (maxDiskUsagePerPart >= 0 && this.byteCount > maxDiskUsagePerPart) {
+				DataBufferUtils.release(buffer);
+				fail(new DecodingException("Part '" + this.headers.getContentDisposition().getName() +
+						"' exceeded the disk usage limit of " + maxDiskUsagePerPart + " bytes"));
+				return false;
+			}
+			return true;
+		}
+
+		private void write(DataBuffer buffer, FileOperation operation) {
+			synchronized (this) {
+				this.writing = true;
+			}
+			blockingOperationScheduler.schedule(() -> {
+				try {
+					if (aborted) {
+						return;
+					}
+					operation.run();
+				}
+				catch (Throwable ex) {
+					if (!aborted) {
+						fail(ex);
+					}
+					return;
+				}
+				finally {
+					DataBufferUtils.release(buffer);
+				}
+				writeComplete();
+			});
+		}
+
+		private void writeFully(FileChannel channel, ByteBuffer byteBuffer) throws IOException {
+			while (byteBuffer.hasRemaining()) {
+				channel.write(byteBuffer);
+			}
+		}
+
+		private void writeComplete() {
+			boolean completionPending;
+			boolean finalPartPending;
+			synchronized (this) {
+				this.writing = false;
+				completionPending = this.completionPending;
+				finalPartPending = this.finalPartPending;
+			}
+			if (completionPending) {
+				emitPart(finalPartPending);
+			}
+			else {
+				requestToken();
+			}
+		}
+
+		@Override
+		public void partComplete(boolean finalPart) {
+			synchronized (this) {
+				if (this.writing) {
+					this.completionPending = true;
+					this.finalPartPending = finalPart;
+					return;
+				}
+			}
+			emitPart(finalPart);
+		}
+
+		private void emitPart(boolean finalPart) {
+			Path file = this.file;
+			try {
+				closeChannel();
+			}
+			catch (IOException ex) {
+				fail(ex);
+				return;
+			}
+			if (file != null) {
+				// The part owns the file from now on
+				this.file = null;
+				sink.next(DefaultParts.part(this.headers,
+						new DefaultParts.FileContent(file, blockingOperationScheduler)));
+			}
+			if (finalPart) {
+				sink.complete();
+			}
+		}
+
+		private void closeChannel() throws IOException {
+			FileChannel channel = this.channel;
+			if (channel != null) {
+				this.channel = null;
+				channel.close();
+			}
+		}
+
+		@Override
+		public void error(Throwable ex) {
+			dispose();
+		}
+
+		@Override
+		public void dispose() {
+			this.disposed = true;
+			blockingOperationScheduler.schedule(this::closeAndDeleteFile);
+		}
+
+		private void closeAndDeleteFile() {
+			try {
+				closeChannel();
+				Path file = this.file;
+				if (file != null) {
+					Files.deleteIfExists(file);
+				}
+			}
+			catch (IOException ignored) {
+			}
+		}
+	}
+
+
+	@FunctionalInterface
+	private interface FileOperation {
+
+		void run() throws Exception;
+	}
+
+}
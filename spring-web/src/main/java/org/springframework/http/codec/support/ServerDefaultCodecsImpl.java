@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,9 @@ import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.http.codec.HttpMessageWriter;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.http.codec.ServerSentEventHttpMessageWriter;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.codec.multipart.MultipartHttpMessageReader;
+import org.springframework.http.codec.multipart.Part;
 import org.springframework.http.codec.multipart.SynchronossPartHttpMessageReader;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
@@ -51,17 +53,24 @@ class ServerDefaultCodecsImpl extends BaseDefaultCodecs implements ServerCodecCo
 
 	@Override
 	protected void extendTypedReaders(List<HttpMessageReader<?>> typedReaders) {
-		if (synchronossMultipartPresent) {
-			boolean enable = isEnableLoggingRequestDetails();
-
-			SynchronossPartHttpMessageReader partReader = new SynchronossPartHttpMessageReader();
-			partReader.setEnableLoggingRequestDetails(enable);
-			typedReaders.add(partReader);
+		boolean enable = isEnableLoggingRequestDetails();
 
-			MultipartHttpMessageReader reader = new MultipartHttpMessageReader(partReader);
-			reader.setEnableLoggingRequestDetails(enable);
-			typedReaders.add(reader);
+		HttpMessageReader<Part> partReader;
+		if (synchronossMultipartPresent) {
+			SynchronossPartHttpMessageReader synchronossPartReader = new SynchronossPartHttpMessageReader();
+			synchronossPartReader.setEnableLoggingRequestDetails(enable);
+			partReader = synchronossPartReader;
 		}
+		else {
+			DefaultPartHttpMessageReader defaultPartReader = new DefaultPartHttpMessageReader();
+			defaultPartReader.setEnableLoggingRequestDetails(enable);
+			partReader = defaultPartReader;
+		}
+		typedReaders.add(partReader);
+
+		MultipartHttpMessageReader reader = new MultipartHttpMessageReader(partReader);
+		reader.setEnableLoggingRequestDetails(enable);
+		typedReaders.add(reader);
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.fasterxml.jackson.core.JsonEncoding;
@@ -36,8 +37,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 
 import org.springframework.core.GenericTypeResolver;
@@ -51,6 +54,7 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.TypeUtils;
 
 /**
@@ -83,6 +87,8 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	@Nullable
 	private PrettyPrinter ssePrettyPrinter;
 
+	private final Map<JavaType, CachedWriter> containerTypeWriterCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		this.objectMapper = objectMapper;
@@ -271,13 +277,19 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				javaType = getJavaType(type, null);
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					this.objectMapper.writerWithView(serializationView) : this.objectMapper.writer());
-			if (filters != null) {
-				objectWriter = objectWriter.with(filters);
+			ObjectWriter objectWriter;
+			if (serializationView == null && filters == null && javaType != null && javaType.isContainerType()) {
+				objectWriter = getContainerTypeWriter(javaType);
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
+			else {
+				objectWriter = (serializationView != null ?
+						this.objectMapper.writerWithView(serializationView) : this.objectMapper.writer());
+				if (filters != null) {
+					objectWriter = objectWriter.with(filters);
+				}
+				if (javaType != null && javaType.isContainerType()) {
+					objectWriter = objectWriter.forType(javaType);
+				}
 			}
 			SerializationConfig config = objectWriter.getConfig();
 			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
@@ -297,6 +309,21 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		}
 	}
 
+	/**
+	 * Return an {@code ObjectWriter} for the given container type, reusing a
+	 * previously created instance along with its pre-fetched root serializer
+	 * unless the {@code ObjectMapper} has been reconfigured in the meantime.
+	 */
+	private ObjectWriter getContainerTypeWriter(JavaType javaType) {
+		ObjectMapper objectMapper = this.objectMapper;
+		CachedWriter cachedWriter = this.containerTypeWriterCache.get(javaType);
+		if (cachedWriter == null || !cachedWriter.isValidFor(objectMapper)) {
+			cachedWriter = new CachedWriter(objectMapper, objectMapper.writer().forType(javaType));
+			this.containerTypeWriterCache.put(javaType, cachedWriter);
+		}
+		return cachedWriter.writer;
+	}
+
 	/**
 	 * Write a prefix before the main content.
 	 * @param generator the generator to use for writing content.
@@ -359,4 +386,33 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		return super.getContentLength(object, contentType);
 	}
 
+
+	/**
+	 * An {@code ObjectWriter} along with the {@code ObjectMapper} state it was
+	 * created from.
+	 */
+	private static final class CachedWriter {
+
+		private final SerializationConfig config;
+
+		private final SerializerFactory serializerFactory;
+
+		private final SerializerProvider serializerProvider;
+
+		final ObjectWriter writer;
+
+		CachedWriter(ObjectMapper objectMapper, ObjectWriter writer) {
+			this.config = objectMapper.getSerializationConfig();
+			this.serializerFactory = objectMapper.getSerializerFactory();
+			this.serializerProvider = objectMapper.getSerializerProvider();
+			this.writer = writer;
+		}
+
+		boolean isValidFor(ObjectMapper objectMapper) {
+			return (this.config == objectMapper.getSerializationConfig() &&
+					this.serializerFactory == objectMapper.getSerializerFactory() &&
+					this.serializerProvider == objectMapper.getSerializerProvider());
+		}
+	}
+
 }
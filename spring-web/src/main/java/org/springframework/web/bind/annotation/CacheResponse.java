@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.bind.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation that marks the responses of a handler method as eligible for
+ * server-side caching. Supported for annotated handler methods, in Spring MVC
+ * with a {@link org.springframework.web.filter.ResponseCachingFilter} and in
+ * Spring WebFlux with a {@link org.springframework.web.filter.reactive.ResponseCachingWebFilter}.
+ *
+ * <p>Only successful responses to GET requests are being stored, and subsequent
+ * GET and HEAD requests for the same resource are served from the cache without
+ * invoking the handler. The filter documentation has the details.
+ *
+ * <p>This annotation can also be added on the type level in which case it
+ * applies to all handler methods of the controller.
+ *
+ * @author agent
+ * @since 5.2
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheResponse {
+
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.cache.Cache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link javax.servlet.Filter} that stores the status, headers and body of
+ * successful GET responses in a Spring {@link Cache}, and serves subsequent
+ * GET and HEAD requests for the same resource straight from the cached bytes,
+ * without any further processing of the request.
+ *
+ * <p>Only responses explicitly marked as cacheable are stored: either through
+ * {@link #cacheResponse(ServletRequest)} or, for annotated controllers in
+ * Spring MVC, through the {@link org.springframework.web.bind.annotation.CacheResponse
+ * CacheResponse} annotation on the handler method. The body of other responses
+ * is not being buffered by this filter.
+ *
+ * <p>The cache key consists of the scheme, host and port, the request URI, the
+ * query string and the values of the {@link #setKeyHeaderNames "keyHeaderNames"}
+ * request headers. Conditional requests with an {@code If-None-Match} header
+ * matching the {@code ETag} of a cached response get a 304 response. Responses
+ * with a {@code Vary} header listing any other request header are not stored,
+ * and neither are responses that set cookies or carry a {@code Cache-Control}
+ * directive of "no-store" or "private". Requests with an {@code Authorization}
+ * header bypass the cache altogether, in line with RFC 7234 section 3.2.
+ *
+ * <p>The cache is shared by all users: since the cache key does not reflect
+ * per-user state such as a session cookie, only mark responses as cacheable
+ * that are the same for every user, or add the request headers carrying such
+ * state to the {@link #setKeyHeaderNames "keyHeaderNames"}.
+ *
+ * <p>This filter does not expire entries itself: configure a time-to-live on
+ * the underlying cache provider, or evict entries through the {@link Cache}
+ * operations, e.g. {@link Cache#clear()} after a change to the cached resources.
+ *
+ * @author agent
+ * @since 5.2
+ * @see org.springframework.web.bind.annotation.CacheResponse
+ * @see ShallowEtagHeaderFilter
+ */
+public class ResponseCachingFilter extends OncePerRequestFilter {
+
+	private static final String CACHEABLE_ATTRIBUTE = ResponseCachingFilter.class.getName() + ".CACHEABLE";
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+	private static final String DIRECTIVE_PRIVATE = "private";
+
+
+	private final Cache cache;
+
+	private List<String> keyHeaderNames = Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE);
+
+
+	/**
+	 * Create a new ResponseCachingFilter for the given cache.
+	 * @param cache the cache to store responses in
+	 */
+	public ResponseCachingFilter(Cache cache) {
+		Assert.notNull(cache, "Cache must not be null");
+		this.cache = cache;
+	}
+
+
+	/**
+	 * Return the cache that responses are stored in.
+	 */
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Set the names of the request headers whose values are part of the cache
+	 * key, i.e. the request headers that a cached response may vary by.
+	 * <p>By default, these are "Accept" and "Accept-Language".
+	 */
+	public void setKeyHeaderNames(String... keyHeaderNames) {
+		Assert.notNull(keyHeaderNames, "'keyHeaderNames' must not be null");
+		this.keyHeaderNames = Arrays.asList(keyHeaderNames);
+	}
+
+	/**
+	 * Return the names of the request headers whose values are part of the cache key.
+	 */
+	public List<String> getKeyHeaderNames() {
+		return this.keyHeaderNames;
+	}
+
+
+	/**
+	 * The default value is {@code false} so that the filter may store a response
+	 * once the last asynchronously dispatched thread has completed it.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		if (!isCacheableRequest(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String method = request.getMethod();
+
+		HttpServletResponse responseToUse = response;
+		if (!isAsyncDispatch(request)) {
+			Cache.ValueWrapper cached = this.cache.get(getCacheKey(request));
+			if (cached != null && cached.get() instanceof CachedResponse) {
+				CachedResponse cachedResponse = (CachedResponse) cached.get();
+				String eTag = cachedResponse.getETag();
+				if (eTag == null || !new ServletWebRequest(request, response).checkNotModified(eTag)) {
+					cachedResponse.writeTo(response, HttpMethod.GET.matches(method));
+				}
+				return;
+			}
+			if (HttpMethod.GET.matches(method)) {
+				responseToUse = new CacheableResponseWrapper(response, request);
+			}
+		}
+
+		filterChain.doFilter(request, responseToUse);
+
+		if (!isAsyncStarted(request)) {
+			CacheableResponseWrapper responseWrapper =
+					WebUtils.getNativeResponse(responseToUse, CacheableResponseWrapper.class);
+			if (responseWrapper != null) {
+				updateCache(request, responseWrapper);
+			}
+		}
+	}
+
+	private void updateCache(HttpServletRequest request, CacheableResponseWrapper responseWrapper)
+			throws IOException {
+
+		HttpServletResponse rawResponse = (HttpServletResponse) responseWrapper.getResponse();
+		if (isCacheable(request) && !rawResponse.isCommitted() &&
+				isEligibleForCaching(request, rawResponse, responseWrapper.getStatusCode())) {
+			HttpHeaders headers = new HttpHeaders();
+			for (String headerName : rawResponse.getHeaderNames()) {
+				for (String headerValue : rawResponse.getHeaders(headerName)) {
+					headers.add(headerName, headerValue);
+				}
+			}
+			String contentType = rawResponse.getContentType();
+			if (contentType != null) {
+				headers.set(HttpHeaders.CONTENT_TYPE, contentType);
+			}
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			this.cache.put(getCacheKey(request), new CachedResponse(
+					responseWrapper.getStatusCode(), headers, responseWrapper.getContentAsByteArray()));
+		}
+		responseWrapper.copyBodyToResponse();
+	}
+
+	/**
+	 * Indicates whether the given request may be served from the cache, and
+	 * whether its response may be stored.
+	 * <p>The default implementation returns {@code true} for GET and HEAD
+	 * requests without an {@code Authorization} header, since a shared cache
+	 * must not reuse responses to authorized requests (RFC 7234 section 3.2).
+	 * @param request the current request
+	 * @return {@code true} if the cache applies to the request
+	 */
+	protected boolean isCacheableRequest(HttpServletRequest request) {
+		String method = request.getMethod();
+		return ((HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) &&
+				request.getHeader(HttpHeaders.AUTHORIZATION) == null);
+	}
+
+	/**
+	 * Build the cache key for the given request.
+	 * <p>The default implementation combines the scheme, host and port, the
+	 * request URI and query string with the values of the
+	 * {@link #setKeyHeaderNames "keyHeaderNames"} headers.
+	 * @param request the current request
+	 * @return the cache key
+	 */
+	protected String getCacheKey(HttpServletRequest request) {
+		StringBuilder key = new StringBuilder(request.getScheme()).append("://")
+				.append(request.getServerName()).append(':').append(request.getServerPort())
+				.append(request.getRequestURI());
+		String query = request.getQueryString();
+		if (query != null) {
+			key.append('?').append(query);
+		}
+		for (String headerName : this.keyHeaderNames) {
+			key.append('\n').append(headerName).append(':');
+			Enumeration<String> headerValues = request.getHeaders(headerName);
+			while (headerValues.hasMoreElements()) {
+				key.append(headerValues.nextElement()).append(',');
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Indicates whether the given response, marked as cacheable, may be stored.
+	 * <p>The default implementation returns {@code true} if all conditions match:
+	 * <ul>
+	 * <li>response status code 200</li>
+	 * <li>no cookies being set</li>
+	 * <li>no "no-store" or "private" Cache-Control directive</li>
+	 * <li>no Vary header other than for the {@link #setKeyHeaderNames "keyHeaderNames"}</li>
+	 * </ul>
+	 * @param request the HTTP request
+	 * @param response the HTTP response
+	 * @param responseStatusCode the HTTP response status code
+	 * @return {@code true} if eligible for caching, {@code false} otherwise
+	 */
+	protected boolean isEligibleForCaching(HttpServletRequest request, HttpServletResponse response,
+			int responseStatusCode) {
+
+		if (responseStatusCode != HttpServletResponse.SC_OK || response.containsHeader(HttpHeaders.SET_COOKIE)) {
+			return false;
+		}
+		String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+		if (cacheControl != null &&
+				(cacheControl.contains(DIRECTIVE_NO_STORE) || cacheControl.contains(DIRECTIVE_PRIVATE))) {
+			return false;
+		}
+		return isVaryCovered(response.getHeaders(HttpHeaders.VARY));
+	}
+
+	private boolean isVaryCovered(Collection<String> varyValues) {
+		for (String varyValue : varyValues) {
+			for (String headerName : StringUtils.tokenizeToStringArray(varyValue, ",")) {
+				if (this.keyHeaderNames.stream().noneMatch(headerName::equalsIgnoreCase)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Mark the response to the given request as cacheable, provided that a
+	 * {@code ResponseCachingFilter} is applied to the request.
+	 * <p>This method has to be called before the response body is written.
+	 * @param request the current request
+	 */
+	public static void cacheResponse(ServletRequest request) {
+		Assert.notNull(request, "ServletRequest must not be null");
+		request.setAttribute(CACHEABLE_ATTRIBUTE, Boolean.TRUE);
+	}
+
+	private static boolean isCacheable(ServletRequest request) {
+		return (request.getAttribute(CACHEABLE_ATTRIBUTE) != null);
+	}
+
+
+	/**
+	 * Response wrapper which buffers the body only if the response has been
+	 * marked as cacheable, and passes it through to the raw response otherwise.
+	 */
+	private static class CacheableResponseWrapper extends ContentCachingResponseWrapper {
+
+		private final HttpServletRequest request;
+
+		public CacheableResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+			super(response);
+			this.request = request;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			return (useRawResponse() ? getResponse().getOutputStream() : super.getOutputStream());
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			return (useRawResponse() ? getResponse().getWriter() : super.getWriter());
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (useRawResponse()) {
+				getResponse().flushBuffer();
+			}
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (useRawResponse()) {
+				getResponse().setContentLength(len);
+			}
+			else {
+				super.setContentLength(len);
+			}
+		}
+
+		// Overrides Servlet 3.1 setContentLengthLong(long) at runtime
+		public void setContentLengthLong(long len) {
+			if (useRawResponse()) {
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		private boolean useRawResponse() {
+			return !isCacheable(this.request);
+		}
+	}
+
+
+	/**
+	 * Status, headers and body of a cached response.
+	 */
+	@SuppressWarnings("serial")
+	private static class CachedResponse implements Serializable {
+
+		private final int status;
+
+		private final MultiValueMap<String, String> headers;
+
+		private final byte[] body;
+
+		@Nullable
+		private final String eTag;
+
+		public CachedResponse(int status, HttpHeaders headers, byte[] body) {
+			this.status = status;
+			this.headers = new LinkedMultiValueMap<>(headers);
+			this.body = body;
+			this.eTag = headers.getETag();
+		}
+
+		@Nullable
+		public String getETag() {
+			return this.eTag;
+		}
+
+		public void writeTo(HttpServletResponse response, boolean writeBody) throws IOException {
+			response.setStatus(this.status);
+			this.headers.forEach((name, values) -> {
+				// Replace headers that may have been set already, e.g. ETag
+				response.setHeader(name, values.get(0));
+				for (int i = 1; i < values.size(); i++) {
+					response.addHeader(name, values.get(i));
+				}
+			});
+			response.setContentLength(this.body.length);
+			if (writeBody) {
+				response.getOutputStream().write(this.body);
+			}
+		}
+	}
+
+}
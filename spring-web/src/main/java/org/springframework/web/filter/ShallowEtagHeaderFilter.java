@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,23 @@
 
 package org.springframework.web.filter;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -41,6 +47,9 @@ import org.springframework.web.util.WebUtils;
  * <p>Since the ETag is based on the response content, the response
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
+ * The response content is buffered in order to calculate the ETag before
+ * the response is committed; consider specifying a
+ * {@link #setContentCacheLimit "contentCacheLimit"} for large responses.
  *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
@@ -66,6 +75,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int contentCacheLimit = -1;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -86,6 +97,27 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of bytes of response content to buffer for
+	 * calculating the ETag. Once a response exceeds that limit, the content
+	 * buffered so far is written to the actual response and the rest of the
+	 * content is passed through as it is being written, without an ETag.
+	 * <p>Default is -1, i.e. no limit: the entire content is buffered.
+	 * @since 5.2
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of bytes of response content to buffer
+	 * for calculating the ETag, or -1 for no limit.
+	 * @since 5.2
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -102,7 +134,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
-			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(response, request);
+			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(
+					response, request, this.contentCacheLimit);
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -215,24 +248,234 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		private final HttpServletRequest request;
 
-		public HttpStreamingAwareContentCachingResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+		private final int contentCacheLimit;
+
+		@Nullable
+		private ServletOutputStream limitingOutputStream;
+
+		@Nullable
+		private PrintWriter limitingWriter;
+
+		public HttpStreamingAwareContentCachingResponseWrapper(
+				HttpServletResponse response, HttpServletRequest request, int contentCacheLimit) {
+
 			super(response);
 			this.request = request;
+			this.contentCacheLimit = contentCacheLimit;
 		}
 
 		@Override
 		public ServletOutputStream getOutputStream() throws IOException {
-			return (useRawResponse() ? getResponse().getOutputStream() : super.getOutputStream());
+			if (this.limitingOutputStream != null) {
+				return this.limitingOutputStream;
+			}
+			if (useRawResponse()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.contentCacheLimit < 0) {
+				return super.getOutputStream();
+			}
+			this.limitingOutputStream = new ContentCacheLimitingOutputStream(super.getOutputStream());
+			return this.limitingOutputStream;
 		}
 
 		@Override
 		public PrintWriter getWriter() throws IOException {
-			return (useRawResponse() ? getResponse().getWriter() : super.getWriter());
+			if (this.limitingWriter != null) {
+				return this.limitingWriter;
+			}
+			if (useRawResponse()) {
+				return getResponse().getWriter();
+			}
+			if (this.contentCacheLimit < 0) {
+				return super.getWriter();
+			}
+			String characterEncoding = getCharacterEncoding();
+			this.limitingWriter = new ContentCacheLimitingPrintWriter(getOutputStream(),
+					(characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING));
+			return this.limitingWriter;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (useRawResponse()) {
+				getResponse().flushBuffer();
+			}
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (this.contentCacheLimit >= 0 && len > this.contentCacheLimit && !useRawResponse()) {
+				switchToRawResponse();
+			}
+			if (useRawResponse()) {
+				getResponse().setContentLength(len);
+			}
+			else {
+				super.setContentLength(len);
+			}
+		}
+
+		// Overrides Servlet 3.1 setContentLengthLong(long) at runtime
+		public void setContentLengthLong(long len) {
+			if (this.contentCacheLimit >= 0 && len > this.contentCacheLimit && !useRawResponse()) {
+				switchToRawResponse();
+			}
+			if (useRawResponse()) {
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
 		}
 
 		private boolean useRawResponse() {
 			return isContentCachingDisabled(this.request);
 		}
+
+		/**
+		 * Write the content buffered so far to the raw response, and pass
+		 * any further content through without an ETag.
+		 */
+		private void switchToRawResponse() {
+			try {
+				copyBodyToResponse(false);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write buffered content to response", ex);
+			}
+			disableContentCaching(this.request);
+		}
+
+
+		/**
+		 * OutputStream which buffers content up to the content cache limit,
+		 * switching to the raw response once the limit is exceeded.
+		 */
+		private class ContentCacheLimitingOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream cachingStream;
+
+			public ContentCacheLimitingOutputStream(ServletOutputStream cachingStream) {
+				this.cachingStream = cachingStream;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				getTargetStream(1).write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				getTargetStream(len).write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (useRawResponse()) {
+					getResponse().getOutputStream().flush();
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return getCurrentStream().isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				getCurrentStream().setWriteListener(writeListener);
+			}
+
+			private ServletOutputStream getTargetStream(int len) {
+				if (!useRawResponse() && getContentSize() + len > contentCacheLimit) {
+					switchToRawResponse();
+				}
+				return getCurrentStream();
+			}
+
+			private ServletOutputStream getCurrentStream() {
+				if (!useRawResponse()) {
+					return this.cachingStream;
+				}
+				try {
+					return getResponse().getOutputStream();
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Failed to obtain response OutputStream", ex);
+				}
+			}
+		}
+
+
+		/**
+		 * PrintWriter on top of the {@link ContentCacheLimitingOutputStream},
+		 * encoding its characters into the stream on every write so that the
+		 * content cache limit applies. The stream itself, and with it the
+		 * response, is only flushed on an explicit {@link #flush()}.
+		 */
+		private static class ContentCacheLimitingPrintWriter extends PrintWriter {
+
+			private final ServletOutputStream outputStream;
+
+			public ContentCacheLimitingPrintWriter(ServletOutputStream outputStream, String characterEncoding)
+					throws UnsupportedEncodingException {
+
+				super(new OutputStreamWriter(new NonFlushingOutputStream(outputStream), characterEncoding));
+				this.outputStream = outputStream;
+			}
+
+			@Override
+			public void write(char[] buf, int off, int len) {
+				super.write(buf, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(String s, int off, int len) {
+				super.write(s, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(int c) {
+				super.write(c);
+				super.flush();
+			}
+
+			@Override
+			public void flush() {
+				super.flush();
+				try {
+					this.outputStream.flush();
+				}
+				catch (IOException ex) {
+					setError();
+				}
+			}
+		}
+
+
+		/**
+		 * OutputStream that ignores {@link #flush()}, letting the
+		 * {@link ContentCacheLimitingPrintWriter} drain its encoder without
+		 * flushing the response.
+		 */
+		private static class NonFlushingOutputStream extends FilterOutputStream {
+
+			public NonFlushingOutputStream(OutputStream out) {
+				super(out);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				this.out.write(b, off, len);
+			}
+
+			@Override
+			public void flush() {
+			}
+		}
 	}
 
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that stores the status, headers and body of
+ * successful GET responses in a Spring {@link Cache}, and serves subsequent
+ * GET and HEAD requests for the same resource straight from the cached bytes,
+ * without invoking the rest of the filter chain and the handler.
+ *
+ * <p>Only responses explicitly marked as cacheable are stored: either through
+ * {@link #cacheResponse(ServerWebExchange)}, e.g. from a functional endpoint,
+ * or for annotated controllers through the
+ * {@link org.springframework.web.bind.annotation.CacheResponse CacheResponse}
+ * annotation on the handler method. Streaming responses are never stored.
+ *
+ * <p>The cache key and the eligibility rules are the same as for the Servlet
+ * {@link org.springframework.web.filter.ResponseCachingFilter}; in particular,
+ * requests with an {@code Authorization} header bypass the cache, conditional
+ * requests matching the {@code ETag} of a cached response get a 304 response,
+ * and the cache
+ * is shared by all users, so only mark responses as cacheable that do not
+ * depend on per-user state such as a session cookie. Note that the
+ * {@link Cache} is accessed from the request processing thread, so it should
+ * be an in-memory cache which does not block on lookups.
+ *
+ * @author agent
+ * @since 5.2
+ * @see org.springframework.web.bind.annotation.CacheResponse
+ */
+public class ResponseCachingWebFilter implements WebFilter {
+
+	private static final String CACHEABLE_ATTRIBUTE = ResponseCachingWebFilter.class.getName() + ".CACHEABLE";
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+	private static final String DIRECTIVE_PRIVATE = "private";
+
+
+	private final Cache cache;
+
+	private List<String> keyHeaderNames = Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE);
+
+
+	/**
+	 * Create a new ResponseCachingWebFilter for the given cache.
+	 * @param cache the cache to store responses in
+	 */
+	public ResponseCachingWebFilter(Cache cache) {
+		Assert.notNull(cache, "Cache must not be null");
+		this.cache = cache;
+	}
+
+
+	/**
+	 * Return the cache that responses are stored in.
+	 */
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Set the names of the request headers whose values are part of the cache
+	 * key, i.e. the request headers that a cached response may vary by.
+	 * <p>By default, these are "Accept" and "Accept-Language".
+	 */
+	public void setKeyHeaderNames(String... keyHeaderNames) {
+		Assert.notNull(keyHeaderNames, "'keyHeaderNames' must not be null");
+		this.keyHeaderNames = Arrays.asList(keyHeaderNames);
+	}
+
+	/**
+	 * Return the names of the request headers whose values are part of the cache key.
+	 */
+	public List<String> getKeyHeaderNames() {
+		return this.keyHeaderNames;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (!isCacheableRequest(request)) {
+			return chain.filter(exchange);
+		}
+
+		String cacheKey = getCacheKey(request);
+		Cache.ValueWrapper cached = this.cache.get(cacheKey);
+		if (cached != null && cached.get() instanceof CachedResponse) {
+			CachedResponse cachedResponse = (CachedResponse) cached.get();
+			String eTag = cachedResponse.getETag();
+			if (eTag != null && exchange.checkNotModified(eTag)) {
+				return exchange.getResponse().setComplete();
+			}
+			return cachedResponse.writeTo(exchange.getResponse());
+		}
+		if (request.getMethod() != HttpMethod.GET) {
+			return chain.filter(exchange);
+		}
+		return chain.filter(exchange.mutate().response(new CachingResponseDecorator(exchange, cacheKey)).build());
+	}
+
+	/**
+	 * Indicates whether the given request may be served from the cache, and
+	 * whether its response may be stored.
+	 * <p>The default implementation returns {@code true} for GET and HEAD
+	 * requests without an {@code Authorization} header, since a shared cache
+	 * must not reuse responses to authorized requests (RFC 7234 section 3.2).
+	 * @param request the current request
+	 * @return {@code true} if the cache applies to the request
+	 */
+	protected boolean isCacheableRequest(ServerHttpRequest request) {
+		HttpMethod method = request.getMethod();
+		return ((method == HttpMethod.GET || method == HttpMethod.HEAD) &&
+				!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION));
+	}
+
+	/**
+	 * Build the cache key for the given request.
+	 * <p>The default implementation combines the scheme, host and port, the
+	 * request path and query string with the values of the
+	 * {@link #setKeyHeaderNames "keyHeaderNames"} headers.
+	 * @param request the current request
+	 * @return the cache key
+	 */
+	protected String getCacheKey(ServerHttpRequest request) {
+		URI uri = request.getURI();
+		StringBuilder key = new StringBuilder(String.valueOf(uri.getScheme())).append("://")
+				.append(uri.getHost()).append(':').append(uri.getPort())
+				.append(uri.getRawPath());
+		String query = uri.getRawQuery();
+		if (query != null) {
+			key.append('?').append(query);
+		}
+		HttpHeaders headers = request.getHeaders();
+		for (String headerName : this.keyHeaderNames) {
+			key.append('\n').append(headerName).append(':');
+			List<String> headerValues = headers.get(headerName);
+			if (headerValues != null) {
+				for (String headerValue : headerValues) {
+					key.append(headerValue).append(',');
+				}
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Indicates whether the given response, marked as cacheable, may be stored.
+	 * <p>The default implementation returns {@code true} if all conditions match:
+	 * <ul>
+	 * <li>response status code 200</li>
+	 * <li>no cookies being set</li>
+	 * <li>no "no-store" or "private" Cache-Control directive</li>
+	 * <li>no Vary header other than for the {@link #setKeyHeaderNames "keyHeaderNames"}</li>
+	 * </ul>
+	 * @param response the HTTP response
+	 * @return {@code true} if eligible for caching, {@code false} otherwise
+	 */
+	protected boolean isEligibleForCaching(ServerHttpResponse response) {
+		HttpStatus status = response.getStatusCode();
+		if ((status != null && status != HttpStatus.OK) || !response.getCookies().isEmpty() ||
+				response.getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+			return false;
+		}
+		String cacheControl = response.getHeaders().getCacheControl();
+		if (cacheControl != null &&
+				(cacheControl.contains(DIRECTIVE_NO_STORE) || cacheControl.contains(DIRECTIVE_PRIVATE))) {
+			return false;
+		}
+		for (String headerName : response.getHeaders().getVary()) {
+			if (this.keyHeaderNames.stream().noneMatch(headerName::equalsIgnoreCase)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Mark the response of the given exchange as cacheable, provided that a
+	 * {@code ResponseCachingWebFilter} is applied to the exchange.
+	 * <p>This method has to be called before the response body is written.
+	 * @param exchange the current exchange
+	 */
+	public static void cacheResponse(ServerWebExchange exchange) {
+		Assert.notNull(exchange, "ServerWebExchange must not be null");
+		exchange.getAttributes().put(CACHEABLE_ATTRIBUTE, Boolean.TRUE);
+	}
+
+	private static boolean isCacheable(ServerWebExchange exchange) {
+		return (exchange.getAttribute(CACHEABLE_ATTRIBUTE) != null);
+	}
+
+
+	/**
+	 * Response decorator which aggregates the body of a cacheable response
+	 * in order to store it, before writing it to the actual response.
+	 */
+	private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final ServerWebExchange exchange;
+
+		private final String cacheKey;
+
+		public CachingResponseDecorator(ServerWebExchange exchange, String cacheKey) {
+			super(exchange.getResponse());
+			this.exchange = exchange;
+			this.cacheKey = cacheKey;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isCacheable(this.exchange) || !isEligibleForCaching(getDelegate())) {
+				return super.writeWith(body);
+			}
+			return DataBufferUtils.join(Flux.from(body).map(DataBuffer.class::cast))
+					.flatMap(dataBuffer -> {
+						byte[] bytes = new byte[dataBuffer.readableByteCount()];
+						dataBuffer.read(bytes);
+						DataBufferUtils.release(dataBuffer);
+						HttpHeaders headers = new HttpHeaders();
+						headers.putAll(getHeaders());
+						headers.remove(HttpHeaders.CONTENT_LENGTH);
+						cache.put(this.cacheKey, new CachedResponse(headers, bytes));
+						return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+					});
+		}
+	}
+
+
+	/**
+	 * Headers and body of a cached response.
+	 */
+	@SuppressWarnings("serial")
+	private static class CachedResponse implements Serializable {
+
+		private final MultiValueMap<String, String> headers;
+
+		private final byte[] body;
+
+		@Nullable
+		private final String eTag;
+
+		public CachedResponse(HttpHeaders headers, byte[] body) {
+			this.headers = new LinkedMultiValueMap<>(headers);
+			this.body = body;
+			this.eTag = headers.getETag();
+		}
+
+		@Nullable
+		public String getETag() {
+			return this.eTag;
+		}
+
+		public Mono<Void> writeTo(ServerHttpResponse response) {
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().putAll(this.headers);
+			response.getHeaders().setContentLength(this.body.length);
+			return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(this.body)));
+		}
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.commons;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+
+import org.springframework.util.Assert;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Parser for multipart servlet requests which, in contrast to
+ * {@link CommonsMultipartResolver}, does not store parts in memory or in
+ * temporary files but exposes them as a lazily consumed {@link Iterator} of
+ * {@link CommonsStreamingPart CommonsStreamingParts}, in the order in which
+ * they appear in the request body. Based on the streaming API of Apache
+ * Commons FileUpload 1.2 or above.
+ *
+ * <p>Each part has to be consumed before moving on to the next one, typically
+ * by passing large file content straight through to its final destination via
+ * {@link CommonsStreamingPart#transferTo(java.io.OutputStream)}. Small form
+ * fields may be read into memory, up to the {@link #setMaxInMemorySize
+ * "maxInMemorySize"}.
+ *
+ * <p>Since the request body can only be read once, requests to be parsed this
+ * way must not go through an eagerly resolving
+ * {@link org.springframework.web.multipart.MultipartResolver}. Either leave the
+ * multipart resolver out for such requests or switch it to
+ * {@link CommonsMultipartResolver#setResolveLazily "resolveLazily"} mode and
+ * do not access the resolved parameters and files.
+ *
+ * @author agent
+ * @since 5.2
+ * @see #parse(HttpServletRequest)
+ * @see CommonsStreamingPart
+ * @see org.apache.commons.fileupload.FileUploadBase#getItemIterator
+ */
+public class CommonsStreamingMultipartParser {
+
+	private long maxUploadSize = -1;
+
+	private long maxUploadSizePerFile = -1;
+
+	private int maxInMemorySize = 10240;
+
+	private String defaultEncoding = WebUtils.DEFAULT_CHARACTER_ENCODING;
+
+
+	/**
+	 * Set the maximum allowed size (in bytes) before an upload gets rejected.
+	 * -1 indicates no limit (the default).
+	 * @param maxUploadSize the maximum upload size allowed
+	 * @see org.apache.commons.fileupload.FileUploadBase#setSizeMax
+	 */
+	public void setMaxUploadSize(long maxUploadSize) {
+		this.maxUploadSize = maxUploadSize;
+	}
+
+	/**
+	 * Return the maximum allowed size (in bytes) before an upload gets rejected.
+	 */
+	public long getMaxUploadSize() {
+		return this.maxUploadSize;
+	}
+
+	/**
+	 * Set the maximum allowed size (in bytes) for each individual file before
+	 * an upload gets rejected. -1 indicates no limit (the default).
+	 * @param maxUploadSizePerFile the maximum upload size per file
+	 * @see org.apache.commons.fileupload.FileUploadBase#setFileSizeMax
+	 */
+	public void setMaxUploadSizePerFile(long maxUploadSizePerFile) {
+		this.maxUploadSizePerFile = maxUploadSizePerFile;
+	}
+
+	/**
+	 * Return the maximum allowed size (in bytes) for each individual file.
+	 */
+	public long getMaxUploadSizePerFile() {
+		return this.maxUploadSizePerFile;
+	}
+
+	/**
+	 * Set the maximum size (in bytes) of a part that may be read into memory
+	 * through {@link CommonsStreamingPart#getBytes()} or
+	 * {@link CommonsStreamingPart#getString()}. Larger parts need to be read
+	 * from their {@code InputStream} or transferred to a target stream or channel.
+	 * Default is 10240, according to Commons FileUpload.
+	 * @param maxInMemorySize the maximum in memory size allowed
+	 */
+	public void setMaxInMemorySize(int maxInMemorySize) {
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+	/**
+	 * Return the maximum size (in bytes) of a part that may be read into memory.
+	 */
+	public int getMaxInMemorySize() {
+		return this.maxInMemorySize;
+	}
+
+	/**
+	 * Set the default character encoding to use for parsing requests,
+	 * to be applied to headers of individual parts and to form fields.
+	 * Default is ISO-8859-1, according to the Servlet spec.
+	 * <p>If the request specifies a character encoding itself, the request
+	 * encoding will override this setting.
+	 * @param defaultEncoding the character encoding to use
+	 * @see javax.servlet.ServletRequest#getCharacterEncoding
+	 * @see WebUtils#DEFAULT_CHARACTER_ENCODING
+	 */
+	public void setDefaultEncoding(String defaultEncoding) {
+		Assert.hasText(defaultEncoding, "'defaultEncoding' must not be empty");
+		this.defaultEncoding = defaultEncoding;
+	}
+
+	/**
+	 * Return the default character encoding to use for parsing requests.
+	 */
+	public String getDefaultEncoding() {
+		return this.defaultEncoding;
+	}
+
+
+	/**
+	 * Parse the given servlet request into a lazily consumed iterator of parts.
+	 * <p>The request body is only read as far as needed by each call to
+	 * {@link Iterator#hasNext()}, skipping the remaining content of the
+	 * previous part if it has not been fully consumed.
+	 * @param request the multipart request to parse
+	 * @return the parts of the request, in the order of the request body
+	 * @throws MaxUploadSizeExceededException if the request or one of its
+	 * files exceeds the configured maximum size
+	 * @throws MultipartException if the request could not be parsed
+	 */
+	public Iterator<CommonsStreamingPart> parse(HttpServletRequest request) throws MultipartException {
+		String encoding = determineEncoding(request);
+		ServletFileUpload fileUpload = new ServletFileUpload();
+		fileUpload.setSizeMax(this.maxUploadSize);
+		fileUpload.setFileSizeMax(this.maxUploadSizePerFile);
+		fileUpload.setHeaderEncoding(encoding);
+		try {
+			return new PartIterator(fileUpload.getItemIterator(request), encoding);
+		}
+		catch (FileUploadException | IOException ex) {
+			throw translateException(ex);
+		}
+	}
+
+	/**
+	 * Determine the encoding for the given request.
+	 * <p>The default implementation checks the request encoding,
+	 * falling back to the default encoding specified for this parser.
+	 * @param request current HTTP request
+	 * @return the encoding for the request (never {@code null})
+	 * @see javax.servlet.ServletRequest#getCharacterEncoding
+	 * @see #setDefaultEncoding
+	 */
+	protected String determineEncoding(HttpServletRequest request) {
+		String encoding = request.getCharacterEncoding();
+		if (encoding == null) {
+			encoding = getDefaultEncoding();
+		}
+		return encoding;
+	}
+
+	/**
+	 * Translate the given Commons FileUpload exception, possibly wrapped
+	 * in an {@code IOException} by a part stream, into a {@link MultipartException}.
+	 */
+	MultipartException translateException(Exception ex) {
+		Throwable cause = (ex instanceof FileUploadBase.FileUploadIOException ? ex.getCause() : ex);
+		if (cause instanceof FileUploadBase.SizeLimitExceededException) {
+			return new MaxUploadSizeExceededException(this.maxUploadSize, cause);
+		}
+		if (cause instanceof FileUploadBase.FileSizeLimitExceededException) {
+			return new MaxUploadSizeExceededException(this.maxUploadSizePerFile, cause);
+		}
+		return new MultipartException("Failed to parse multipart servlet request", ex);
+	}
+
+
+	/**
+	 * Iterator adapting a Commons {@link FileItemIterator} to
+	 * {@link CommonsStreamingPart CommonsStreamingParts}.
+	 */
+	private class PartIterator implements Iterator<CommonsStreamingPart> {
+
+		private final FileItemIterator itemIterator;
+
+		private final String encoding;
+
+		public PartIterator(FileItemIterator itemIterator, String encoding) {
+			this.itemIterator = itemIterator;
+			this.encoding = encoding;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				return this.itemIterator.hasNext();
+			}
+			catch (FileUploadException | IOException ex) {
+				throw translateException(ex);
+			}
+		}
+
+		@Override
+		public CommonsStreamingPart next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return new CommonsStreamingPart(this.itemIterator.next(), this.encoding,
+						CommonsStreamingMultipartParser.this);
+			}
+			catch (FileUploadException | IOException ex) {
+				throw translateException(ex);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.commons;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+import org.apache.commons.fileupload.FileItemHeaders;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartException;
+
+/**
+ * A single part of a multipart request as exposed by a
+ * {@link CommonsStreamingMultipartParser}, backed by a Commons
+ * {@link FileItemStream}.
+ *
+ * <p>The content of a part is not buffered: it can only be consumed once, and
+ * only until the parser's iterator moves on to the next part. Use
+ * {@link #transferTo(OutputStream)} or {@link #transferTo(WritableByteChannel)}
+ * to pass large file content through to its destination, or
+ * {@link #getBytes()} and {@link #getString()} for small form fields.
+ *
+ * @author agent
+ * @since 5.2
+ * @see CommonsStreamingMultipartParser#parse
+ */
+public class CommonsStreamingPart {
+
+	private final FileItemStream itemStream;
+
+	private final String encoding;
+
+	private final CommonsStreamingMultipartParser parser;
+
+
+	CommonsStreamingPart(FileItemStream itemStream, String encoding, CommonsStreamingMultipartParser parser) {
+		this.itemStream = itemStream;
+		this.encoding = encoding;
+		this.parser = parser;
+	}
+
+
+	/**
+	 * Return the name of the part in the multipart form.
+	 */
+	public String getName() {
+		return this.itemStream.getFieldName();
+	}
+
+	/**
+	 * Return the original filename in the client's filesystem,
+	 * or {@code null} if the part is not a file upload.
+	 */
+	@Nullable
+	public String getOriginalFilename() {
+		return this.itemStream.getName();
+	}
+
+	/**
+	 * Return the content type of the part, if specified.
+	 */
+	@Nullable
+	public String getContentType() {
+		return this.itemStream.getContentType();
+	}
+
+	/**
+	 * Determine whether the part represents a simple form field
+	 * rather than a file upload.
+	 */
+	public boolean isFormField() {
+		return this.itemStream.isFormField();
+	}
+
+	/**
+	 * Return the headers of the part.
+	 */
+	public HttpHeaders getHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		FileItemHeaders itemHeaders = this.itemStream.getHeaders();
+		if (itemHeaders != null) {
+			Iterator<String> headerNames = itemHeaders.getHeaderNames();
+			while (headerNames.hasNext()) {
+				String headerName = headerNames.next();
+				Iterator<String> headerValues = itemHeaders.getHeaders(headerName);
+				while (headerValues.hasNext()) {
+					headers.add(headerName, headerValues.next());
+				}
+			}
+		}
+		return headers;
+	}
+
+	/**
+	 * Return an InputStream to read the content of the part from.
+	 * <p>May only be called once. A size limit violation while reading
+	 * is reported as a Commons {@code FileUploadIOException}.
+	 * @throws IOException in case of access errors
+	 * @throws IllegalStateException if the content has been opened before
+	 */
+	public InputStream getInputStream() throws IOException {
+		return this.itemStream.openStream();
+	}
+
+	/**
+	 * Transfer the content of the part to the given stream, without
+	 * buffering more than a small chunk of it in memory.
+	 * <p>The given stream is flushed but not closed.
+	 * @param out the stream to transfer the content to
+	 * @return the number of bytes transferred
+	 * @throws IOException in case of reading or writing errors
+	 * @throws org.springframework.web.multipart.MaxUploadSizeExceededException
+	 * if the part exceeds the maximum upload size per file
+	 */
+	public long transferTo(OutputStream out) throws IOException {
+		try (InputStream in = getInputStream()) {
+			long byteCount = StreamUtils.copy(in, out);
+			out.flush();
+			return byteCount;
+		}
+		catch (FileUploadBase.FileUploadIOException ex) {
+			throw this.parser.translateException(ex);
+		}
+	}
+
+	/**
+	 * Transfer the content of the part to the given channel, e.g. a
+	 * {@link java.nio.channels.FileChannel}, without buffering more than
+	 * a small chunk of it in memory.
+	 * <p>The given channel is not closed.
+	 * @param channel the channel to transfer the content to
+	 * @return the number of bytes transferred
+	 * @throws IOException in case of reading or writing errors
+	 * @throws org.springframework.web.multipart.MaxUploadSizeExceededException
+	 * if the part exceeds the maximum upload size per file
+	 */
+	public long transferTo(WritableByteChannel channel) throws IOException {
+		try (ReadableByteChannel in = Channels.newChannel(getInputStream())) {
+			ByteBuffer buffer = ByteBuffer.allocate(StreamUtils.BUFFER_SIZE);
+			long byteCount = 0;
+			while (in.read(buffer) != -1) {
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					byteCount += channel.write(buffer);
+				}
+				buffer.clear();
+			}
+			return byteCount;
+		}
+		catch (FileUploadBase.FileUploadIOException ex) {
+			throw this.parser.translateException(ex);
+		}
+	}
+
+	/**
+	 * Return the content of the part as an array of bytes.
+	 * @throws IOException in case of access errors
+	 * @throws MultipartException if the part exceeds the
+	 * {@link CommonsStreamingMultipartParser#setMaxInMemorySize "maxInMemorySize"}
+	 */
+	public byte[] getBytes() throws IOException {
+		int maxInMemorySize = this.parser.getMaxInMemorySize();
+		try (InputStream in = getInputStream()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+			int bytesRead;
+			while ((bytesRead = in.read(buffer)) != -1) {
+				if (out.size() + bytesRead > maxInMemorySize) {
+					throw new MultipartException("Part '" + getName() +
+							"' exceeds the maximum in-memory size of " + maxInMemorySize + " bytes");
+				}
+				out.write(buffer, 0, bytesRead);
+			}
+			return out.toByteArray();
+		}
+		catch (FileUploadBase.FileUploadIOException ex) {
+			throw this.parser.translateException(ex);
+		}
+	}
+
+	/**
+	 * Return the content of the part as a String, decoded with the
+	 * request encoding unless the part specifies a charset itself.
+	 * @throws IOException in case of access errors
+	 * @throws MultipartException if the part exceeds the
+	 * {@link CommonsStreamingMultipartParser#setMaxInMemorySize "maxInMemorySize"}
+	 */
+	public String getString() throws IOException {
+		String charset = this.encoding;
+		String contentType = getContentType();
+		if (StringUtils.hasText(contentType)) {
+			Charset partCharset = MediaType.parseMediaType(contentType).getCharset();
+			if (partCharset != null) {
+				charset = partCharset.name();
+			}
+		}
+		return new String(getBytes(), charset);
+	}
+
+
+	@Override
+	public String toString() {
+		return "CommonsStreamingPart: " + getName() +
+				(getOriginalFilename() != null ? " [" + getOriginalFilename() + "]" : "");
+	}
+
+}
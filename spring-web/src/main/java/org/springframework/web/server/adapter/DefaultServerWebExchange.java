@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,8 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 	@Nullable
 	private final ApplicationContext applicationContext;
 
+	private volatile boolean multipartRead;
+
 	private volatile boolean notModified;
 
 	private Function<String, String> urlTransformer = url -> url;
@@ -156,7 +158,7 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 	}
 
 	@SuppressWarnings("unchecked")
-	private static Mono<MultiValueMap<String, Part>> initMultipartData(ServerHttpRequest request,
+	private Mono<MultiValueMap<String, Part>> initMultipartData(ServerHttpRequest request,
 			ServerCodecConfigurer configurer, String logPrefix) {
 
 		try {
@@ -168,6 +170,7 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 						.orElseThrow(() -> new IllegalStateException("No multipart HttpMessageReader.")))
 						.readMono(MULTIPART_DATA_TYPE, request, Hints.from(Hints.LOG_PREFIX_HINT, logPrefix))
 						.switchIfEmpty(EMPTY_MULTIPART_DATA)
+						.doOnNext(multipartData -> this.multipartRead = true)
 						.cache();
 			}
 		}
@@ -221,6 +224,23 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 		return this.multipartDataMono;
 	}
 
+	/**
+	 * Delete the temporary storage of the parts in the
+	 * {@link #getMultipartData() multipart data}, if it was read at all.
+	 * @since 5.2
+	 * @see Part#delete()
+	 */
+	Mono<Void> cleanupMultipart() {
+		if (!this.multipartRead) {
+			return Mono.empty();
+		}
+		return this.multipartDataMono
+				.flatMapIterable(Map::values)
+				.flatMapIterable(Function.identity())
+				.flatMap(part -> part.delete().onErrorResume(ex -> Mono.empty()))
+				.then();
+	}
+
 	@Override
 	public LocaleContext getLocaleContext() {
 		return this.localeContextResolver.resolveLocaleContext(this);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -246,6 +246,7 @@ public class HttpWebHandlerAdapter extends WebHandlerDecorator implements HttpHa
 		return getDelegate().handle(exchange)
 				.doOnSuccess(aVoid -> logResponse(exchange))
 				.onErrorResume(ex -> handleUnresolvedError(exchange, ex))
+				.doFinally(signalType -> cleanupMultipart(exchange))
 				.then(Mono.defer(response::setComplete));
 	}
 
@@ -254,6 +255,13 @@ public class HttpWebHandlerAdapter extends WebHandlerDecorator implements HttpHa
 				getCodecConfigurer(), getLocaleContextResolver(), this.applicationContext);
 	}
 
+	private void cleanupMultipart(ServerWebExchange exchange) {
+		if (exchange instanceof DefaultServerWebExchange) {
+			// File deletion happens on a separate scheduler: no need to hold up the response
+			((DefaultServerWebExchange) exchange).cleanupMultipart().subscribe();
+		}
+	}
+
 	private String formatRequest(ServerHttpRequest request) {
 		String rawQuery = request.getURI().getRawQuery();
 		String query = StringUtils.hasText(rawQuery) ? "?" + rawQuery : "";
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
@@ -40,6 +42,9 @@ import org.springframework.util.StringUtils;
  */
 public class DefaultUriBuilderFactory implements UriBuilderFactory {
 
+	private static final int TEMPLATE_CACHE_LIMIT = 256;
+
+
 	/**
 	 * Enum to represent multiple URI encoding strategies.
 	 * @see #setEncodingMode
@@ -98,6 +103,13 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 
 	private boolean parsePath = true;
 
+	private volatile ConcurrentLruCache<String, UriComponents> templateCache = createTemplateCache();
+
+	// Expand through uriString(String) instead of the cache if a subclass customizes it
+	private final boolean uriStringOverridden =
+			(ClassUtils.getMethod(getClass(), "uriString", String.class).getDeclaringClass() !=
+					DefaultUriBuilderFactory.class);
+
 
 	/**
 	 * Default constructor without a base URI.
@@ -144,6 +156,7 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 	 */
 	public void setEncodingMode(EncodingMode encodingMode) {
 		this.encodingMode = encodingMode;
+		this.templateCache = createTemplateCache();
 	}
 
 	/**
@@ -182,6 +195,7 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 	 */
 	public void setParsePath(boolean parsePath) {
 		this.parsePath = parsePath;
+		this.templateCache = createTemplateCache();
 	}
 
 	/**
@@ -193,14 +207,60 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 	}
 
 
+	/**
+	 * Create the cache of parsed URI templates for the current settings,
+	 * replacing any previous one when a setting that affects parsing changes.
+	 */
+	private ConcurrentLruCache<String, UriComponents> createTemplateCache() {
+		return new ConcurrentLruCache<>(TEMPLATE_CACHE_LIMIT,
+				uriTemplate -> new DefaultUriBuilder(uriTemplate).uriComponentsBuilder.build());
+	}
+
+
 	// UriTemplateHandler
 
 	public URI expand(String uriTemplate, Map<String, ?> uriVars) {
-		return uriString(uriTemplate).build(uriVars);
+		if (this.uriStringOverridden || StringUtils.isEmpty(uriTemplate)) {
+			return uriString(uriTemplate).build(uriVars);
+		}
+		return expandInternal(this.templateCache.get(uriTemplate), uriVars);
 	}
 
 	public URI expand(String uriTemplate, Object... uriVars) {
-		return uriString(uriTemplate).build(uriVars);
+		if (this.uriStringOverridden || StringUtils.isEmpty(uriTemplate)) {
+			return uriString(uriTemplate).build(uriVars);
+		}
+		return expandInternal(this.templateCache.get(uriTemplate), uriVars);
+	}
+
+	private URI expandInternal(UriComponents uric, Map<String, ?> uriVars) {
+		if (!this.defaultUriVariables.isEmpty()) {
+			Map<String, Object> map = new HashMap<>();
+			map.putAll(this.defaultUriVariables);
+			map.putAll(uriVars);
+			uriVars = map;
+		}
+		if (this.encodingMode.equals(EncodingMode.VALUES_ONLY)) {
+			uriVars = UriUtils.encodeUriVariables(uriVars);
+		}
+		return createUri(uric.expand(uriVars));
+	}
+
+	private URI expandInternal(UriComponents uric, Object... uriVars) {
+		if (ObjectUtils.isEmpty(uriVars) && !this.defaultUriVariables.isEmpty()) {
+			return expandInternal(uric, Collections.emptyMap());
+		}
+		if (this.encodingMode.equals(EncodingMode.VALUES_ONLY)) {
+			uriVars = UriUtils.encodeUriVariables(uriVars);
+		}
+		return createUri(uric.expand(uriVars));
+	}
+
+	private URI createUri(UriComponents uric) {
+		if (this.encodingMode.equals(EncodingMode.URI_COMPONENT)) {
+			uric = uric.encode();
+		}
+		return URI.create(uric.toString());
 	}
 
 	// UriBuilderFactory
@@ -359,36 +419,12 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 
 		@Override
 		public URI build(Map<String, ?> uriVars) {
-			if (!defaultUriVariables.isEmpty()) {
-				Map<String, Object> map = new HashMap<>();
-				map.putAll(defaultUriVariables);
-				map.putAll(uriVars);
-				uriVars = map;
-			}
-			if (encodingMode.equals(EncodingMode.VALUES_ONLY)) {
-				uriVars = UriUtils.encodeUriVariables(uriVars);
-			}
-			UriComponents uric = this.uriComponentsBuilder.build().expand(uriVars);
-			return createUri(uric);
+			return expandInternal(this.uriComponentsBuilder.build(), uriVars);
 		}
 
 		@Override
 		public URI build(Object... uriVars) {
-			if (ObjectUtils.isEmpty(uriVars) && !defaultUriVariables.isEmpty()) {
-				return build(Collections.emptyMap());
-			}
-			if (encodingMode.equals(EncodingMode.VALUES_ONLY)) {
-				uriVars = UriUtils.encodeUriVariables(uriVars);
-			}
-			UriComponents uric = this.uriComponentsBuilder.build().expand(uriVars);
-			return createUri(uric);
-		}
-
-		private URI createUri(UriComponents uric) {
-			if (encodingMode.equals(EncodingMode.URI_COMPONENT)) {
-				uric = uric.encode();
-			}
-			return URI.create(uric.toString());
+			return expandInternal(this.uriComponentsBuilder.build(), uriVars);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -334,6 +334,11 @@ final class HierarchicalUriComponents extends UriComponents {
 		Assert.notNull(charset, "Charset must not be null");
 		Assert.notNull(type, "Type must not be null");
 
+		// Fast path: nothing to encode, e.g. literal template parts and plain values
+		if (isAllowed(source, type)) {
+			return source;
+		}
+
 		byte[] bytes = source.getBytes(charset);
 		ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length);
 		boolean changed = false;
@@ -356,6 +361,16 @@ final class HierarchicalUriComponents extends UriComponents {
 		return (changed ? new String(bos.toByteArray(), charset) : source);
 	}
 
+	private static boolean isAllowed(String source, Type type) {
+		for (int i = 0; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c > 127 || !type.isAllowed(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private Type getHostType() {
 		return (this.host != null && this.host.startsWith("[") ? Type.HOST_IPV6 : Type.HOST_IPV4);
 	}
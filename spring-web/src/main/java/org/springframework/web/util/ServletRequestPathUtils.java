@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+
+/**
+ * Utility class to parse the path of an {@link HttpServletRequest} to a
+ * {@link RequestPath} once and cache it in a request attribute, for matching
+ * against parsed {@link org.springframework.web.util.pattern.PathPattern PathPatterns}.
+ *
+ * <p>The path is taken as is from the request URI, i.e. still encoded and
+ * including path parameters, and the {@link RequestPath#pathWithinApplication()
+ * path within the application} is relative to the context path.
+ *
+ * @author agent
+ * @since 5.2
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the request URI of the given request to a {@link RequestPath}
+	 * and save it in the request attribute {@link #PATH_ATTRIBUTE}, replacing
+	 * any previously parsed path.
+	 * <p>For an include dispatch, the request URI and context path of the
+	 * included resource are used.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		if (requestUri == null) {
+			requestUri = request.getRequestURI();
+		}
+		String contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+		if (contextPath == null) {
+			contextPath = request.getContextPath();
+		}
+		RequestPath requestPath = RequestPath.parse(requestUri, contextPath);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return the {@link #parseAndCache cached} path for the given request,
+	 * parsing and caching it first if that has not been done yet.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath getParsedRequestPath(HttpServletRequest request) {
+		RequestPath requestPath = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		return (requestPath != null ? requestPath : parseAndCache(request));
+	}
+
+	/**
+	 * Check whether the given request holds a {@link #parseAndCache cached} path.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Set the cached path for the given request, or remove it if the given
+	 * path is {@code null}, e.g. to restore the path of an outer dispatch.
+	 * @param requestPath the path to set, or {@code null}
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+}
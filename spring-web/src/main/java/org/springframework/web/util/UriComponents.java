@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,8 +25,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -47,10 +45,6 @@ import org.springframework.util.MultiValueMap;
 @SuppressWarnings("serial")
 public abstract class UriComponents implements Serializable {
 
-	/** Captures URI template variable names. */
-	private static final Pattern NAMES_PATTERN = Pattern.compile("\\{([^/]+?)\\}");
-
-
 	@Nullable
 	private final String scheme;
 
@@ -254,23 +248,47 @@ public abstract class UriComponents implements Serializable {
 		if (source.indexOf(':') != -1) {
 			source = sanitizeSource(source);
 		}
-		Matcher matcher = NAMES_PATTERN.matcher(source);
-		StringBuffer sb = new StringBuffer();
-		while (matcher.find()) {
-			String match = matcher.group(1);
-			String varName = getVariableName(match);
-			Object varValue = uriVariables.getValue(varName);
-			if (UriTemplateVariables.SKIP_VALUE.equals(varValue)) {
+		StringBuilder sb = new StringBuilder(source.length() + 16);
+		int copied = 0;
+		int start = source.indexOf('{');
+		while (start != -1) {
+			int end = findVariableEnd(source, start);
+			if (end == -1) {
+				start = source.indexOf('{', start + 1);
 				continue;
 			}
-			String formatted = getVariableValueAsString(varValue);
-			formatted = encoder != null ? encoder.apply(formatted) : Matcher.quoteReplacement(formatted);
-			matcher.appendReplacement(sb, formatted);
+			String varName = getVariableName(source.substring(start + 1, end));
+			Object varValue = uriVariables.getValue(varName);
+			if (!UriTemplateVariables.SKIP_VALUE.equals(varValue)) {
+				String formatted = getVariableValueAsString(varValue);
+				sb.append(source, copied, start).append(encoder != null ? encoder.apply(formatted) : formatted);
+				copied = end + 1;
+			}
+			start = source.indexOf('{', end + 1);
 		}
-		matcher.appendTail(sb);
+		sb.append(source, copied, source.length());
 		return sb.toString();
 	}
 
+	/**
+	 * Find the closing brace of a URI variable opened at the given index,
+	 * equivalent to matching {@code \{([^/]+?)\}}: the variable name is
+	 * not empty and does not contain a '/'.
+	 * @return the index of the closing brace, or -1 if there is none
+	 */
+	private static int findVariableEnd(String source, int start) {
+		for (int i = start + 1; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c == '/') {
+				return -1;
+			}
+			if (c == '}' && i > start + 1) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Remove nested "{}" such as in URI vars with regular expressions.
 	 */
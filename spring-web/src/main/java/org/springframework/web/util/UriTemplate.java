@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,7 +53,10 @@ public class UriTemplate implements Serializable {
 
 	private final List<String> variableNames;
 
-	private final Pattern matchPattern;
+	private final String matchRegex;
+
+	@Nullable
+	private volatile Pattern matchPattern;
 
 
 	/**
@@ -67,7 +70,7 @@ public class UriTemplate implements Serializable {
 
 		TemplateInfo info = TemplateInfo.parse(uriTemplate);
 		this.variableNames = Collections.unmodifiableList(info.getVariableNames());
-		this.matchPattern = info.getMatchPattern();
+		this.matchRegex = info.getMatchRegex();
 	}
 
 
@@ -131,7 +134,7 @@ public class UriTemplate implements Serializable {
 		if (uri == null) {
 			return false;
 		}
-		Matcher matcher = this.matchPattern.matcher(uri);
+		Matcher matcher = getMatchPattern().matcher(uri);
 		return matcher.matches();
 	}
 
@@ -150,7 +153,7 @@ public class UriTemplate implements Serializable {
 	public Map<String, String> match(String uri) {
 		Assert.notNull(uri, "'uri' must not be null");
 		Map<String, String> result = new LinkedHashMap<>(this.variableNames.size());
-		Matcher matcher = this.matchPattern.matcher(uri);
+		Matcher matcher = getMatchPattern().matcher(uri);
 		if (matcher.find()) {
 			for (int i = 1; i <= matcher.groupCount(); i++) {
 				String name = this.variableNames.get(i - 1);
@@ -161,6 +164,19 @@ public class UriTemplate implements Serializable {
 		return result;
 	}
 
+	/**
+	 * Return the pattern for matching URIs, compiled on first use since
+	 * templates are mostly used for expanding only.
+	 */
+	private Pattern getMatchPattern() {
+		Pattern pattern = this.matchPattern;
+		if (pattern == null) {
+			pattern = Pattern.compile(this.matchRegex);
+			this.matchPattern = pattern;
+		}
+		return pattern;
+	}
+
 	@Override
 	public String toString() {
 		return this.uriTemplate;
@@ -174,19 +190,19 @@ public class UriTemplate implements Serializable {
 
 		private final List<String> variableNames;
 
-		private final Pattern pattern;
+		private final String regex;
 
-		private TemplateInfo(List<String> vars, Pattern pattern) {
+		private TemplateInfo(List<String> vars, String regex) {
 			this.variableNames = vars;
-			this.pattern = pattern;
+			this.regex = regex;
 		}
 
 		public List<String> getVariableNames() {
 			return this.variableNames;
 		}
 
-		public Pattern getMatchPattern() {
-			return this.pattern;
+		public String getMatchRegex() {
+			return this.regex;
 		}
 
 		public static TemplateInfo parse(String uriTemplate) {
@@ -235,7 +251,7 @@ public class UriTemplate implements Serializable {
 			if (builder.length() > 0) {
 				pattern.append(quote(builder));
 			}
-			return new TemplateInfo(variableNames, Pattern.compile(pattern.toString()));
+			return new TemplateInfo(variableNames, pattern.toString());
 		}
 
 		private static String quote(StringBuilder builder) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
@@ -134,6 +135,38 @@ public class HttpHeadersTests {
 		assertEquals("Invalid Content-Type header", "text/html;charset=UTF-8", headers.getFirst("Content-Type"));
 	}
 
+	@Test
+	public void contentTypeReflectsModifiedHeaderValue() {
+		headers.setContentType(MediaType.TEXT_HTML);
+		assertEquals(MediaType.TEXT_HTML, headers.getContentType());
+		headers.set("content-type", "text/plain");
+		assertEquals(MediaType.TEXT_PLAIN, headers.getContentType());
+		headers.get(HttpHeaders.CONTENT_TYPE).set(0, "application/json");
+		assertEquals(MediaType.APPLICATION_JSON, headers.getContentType());
+		headers.remove(HttpHeaders.CONTENT_TYPE);
+		assertNull(headers.getContentType());
+	}
+
+	@Test
+	public void contentLengthReflectsModifiedHeaderValue() {
+		headers.setContentLength(42);
+		assertEquals(42, headers.getContentLength());
+		headers.set("CONTENT-LENGTH", "43");
+		assertEquals(43, headers.getContentLength());
+		headers.clear();
+		assertEquals(-1, headers.getContentLength());
+	}
+
+	@Test
+	public void wellKnownHeaderNamesCaseInsensitive() {
+		headers.add("content-type", "text/plain");
+		headers.add("X-Custom", "foo");
+		assertEquals("text/plain", headers.getFirst(HttpHeaders.CONTENT_TYPE));
+		assertEquals("text/plain", headers.getFirst("CONTENT-TYPE"));
+		assertEquals("foo", headers.getFirst("x-custom"));
+		assertEquals(new HashSet<>(Arrays.asList("content-type", "X-Custom")), headers.keySet());
+	}
+
 	@Test
 	public void location() throws URISyntaxException {
 		URI location = new URI("http://www.example.com/hotels");
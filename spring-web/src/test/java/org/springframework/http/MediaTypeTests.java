@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.http;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -143,6 +144,26 @@ public class MediaTypeTests {
 		assertEquals("Invalid amount of media types", 0, mediaTypes.size());
 	}
 
+	@Test
+	public void parseAcceptHeader() {
+		List<String> headerValues = Collections.singletonList("text/plain; q=0.5, text/html, text/x-dvi; q=0.8");
+		List<MediaType> mediaTypes = MediaType.parseAcceptHeader(headerValues);
+		assertEquals(3, mediaTypes.size());
+		assertEquals(MediaType.TEXT_HTML, mediaTypes.get(0));
+		assertEquals(MediaType.parseMediaType("text/x-dvi; q=0.8"), mediaTypes.get(1));
+		assertEquals(MediaType.parseMediaType("text/plain; q=0.5"), mediaTypes.get(2));
+		assertSame(mediaTypes, MediaType.parseAcceptHeader(headerValues));
+
+		mediaTypes = MediaType.parseAcceptHeader(Arrays.asList("text/plain", "application/json, */*"));
+		assertEquals(Arrays.asList(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON, MediaType.ALL), mediaTypes);
+		assertTrue(MediaType.parseAcceptHeader(null).isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void parseAcceptHeaderReturnsUnmodifiableList() {
+		MediaType.parseAcceptHeader(Collections.singletonList("text/html")).add(MediaType.TEXT_PLAIN);
+	}
+
 	@Test
 	public void compareTo() {
 		MediaType audioBasic = new MediaType("audio", "basic");
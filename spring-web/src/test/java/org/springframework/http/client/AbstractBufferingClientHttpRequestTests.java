@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link AbstractBufferingClientHttpRequest}.
+ */
+public class AbstractBufferingClientHttpRequestTests {
+
+	private static final byte[] BODY = "Hello World".getBytes(StandardCharsets.UTF_8);
+
+
+	@Test
+	public void contentLengthMatchingBody() throws Exception {
+		TestBufferingClientHttpRequest request = new TestBufferingClientHttpRequest();
+		request.getHeaders().setContentLength(BODY.length);
+		StreamUtils.copy(BODY, request.getBody());
+		request.execute();
+
+		assertArrayEquals(BODY, request.content);
+		assertEquals(BODY.length, request.headers.getContentLength());
+	}
+
+	@Test
+	public void contentLengthLargerThanBody() throws Exception {
+		TestBufferingClientHttpRequest request = new TestBufferingClientHttpRequest();
+		request.getHeaders().setContentLength(BODY.length + 10);
+		StreamUtils.copy(BODY, request.getBody());
+		request.execute();
+
+		assertArrayEquals(BODY, request.content);
+	}
+
+	@Test
+	public void contentLengthSmallerThanBody() throws Exception {
+		TestBufferingClientHttpRequest request = new TestBufferingClientHttpRequest();
+		request.getHeaders().setContentLength(5);
+		StreamUtils.copy(BODY, request.getBody());
+		request.execute();
+
+		assertArrayEquals(BODY, request.content);
+	}
+
+	@Test
+	public void contentLengthBeyondPresizedCapacity() throws Exception {
+		TestBufferingClientHttpRequest request = new TestBufferingClientHttpRequest();
+		request.getHeaders().setContentLength(Long.MAX_VALUE);
+		StreamUtils.copy(BODY, request.getBody());
+		request.execute();
+
+		assertArrayEquals(BODY, request.content);
+		assertEquals(Long.MAX_VALUE, request.headers.getContentLength());
+	}
+
+	@Test
+	public void noContentLength() throws Exception {
+		TestBufferingClientHttpRequest request = new TestBufferingClientHttpRequest();
+		StreamUtils.copy(BODY, request.getBody());
+		request.execute();
+
+		assertArrayEquals(BODY, request.content);
+		assertEquals(BODY.length, request.headers.getContentLength());
+	}
+
+
+	private static class TestBufferingClientHttpRequest extends AbstractBufferingClientHttpRequest {
+
+		private HttpHeaders headers;
+
+		private byte[] content;
+
+		@Override
+		public String getMethodValue() {
+			return "POST";
+		}
+
+		@Override
+		public URI getURI() {
+			return URI.create("http://example.com");
+		}
+
+		@Override
+		protected ClientHttpResponse executeInternal(HttpHeaders headers, byte[] bufferedOutput) {
+			this.headers = headers;
+			this.content = bufferedOutput;
+			return null;
+		}
+	}
+
+}
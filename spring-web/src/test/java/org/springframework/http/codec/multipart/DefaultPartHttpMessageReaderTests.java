@@ -0,0 +1,308 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.test.MockClientHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.MultiValueMap;
+
+import static java.util.Collections.*;
+import static org.junit.Assert.*;
+import static org.springframework.core.ResolvableType.*;
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.http.MediaType.*;
+
+/**
+ * Unit tests for {@link DefaultPartHttpMessageReader}.
+ */
+public class DefaultPartHttpMessageReaderTests {
+
+	private static final ResolvableType MULTIPART_TYPE =
+			forClassWithGenerics(MultiValueMap.class, String.class, Part.class);
+
+	private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private final DefaultPartHttpMessageReader partReader = new DefaultPartHttpMessageReader();
+
+	private final MultipartHttpMessageReader reader = new MultipartHttpMessageReader(this.partReader);
+
+
+	@Test
+	public void canRead() {
+		assertTrue(this.partReader.canRead(forClass(Part.class), MediaType.MULTIPART_FORM_DATA));
+		assertTrue(this.partReader.canRead(forClass(Part.class), null));
+		assertFalse(this.partReader.canRead(forClass(Part.class), MediaType.APPLICATION_FORM_URLENCODED));
+		assertFalse(this.partReader.canRead(forClass(String.class), MediaType.MULTIPART_FORM_DATA));
+	}
+
+	@Test
+	public void resolveParts() {
+		MultiValueMap<String, Part> parts =
+				this.reader.readMono(MULTIPART_TYPE, generateMultipartRequest(0), emptyMap()).block();
+		assertParts(parts);
+	}
+
+	@Test
+	public void resolvePartsFromSingleByteBuffers() {
+		MultiValueMap<String, Part> parts =
+				this.reader.readMono(MULTIPART_TYPE, generateMultipartRequest(1), emptyMap()).block();
+		assertParts(parts);
+	}
+
+	@Test
+	public void filePartExceedingMaxInMemorySizeStoredOnDisk() throws Exception {
+		Path directory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		try {
+			this.partReader.setFileStorageDirectory(directory);
+			this.partReader.setMaxInMemorySize(5);
+			MultiValueMap<String, Part> parts =
+					this.reader.readMono(MULTIPART_TYPE, generateMultipartRequest(4), emptyMap()).block();
+			assertNotNull(parts);
+			assertEquals(1, Files.list(directory).count());
+			assertEquals("Lorem Ipsum.", contentAsString(parts.getFirst("fooPart")));
+
+			FilePart part = (FilePart) parts.getFirst("fooPart");
+			Path dest = directory.resolve(part.filename());
+			part.transferTo(dest).block(Duration.ofSeconds(5));
+			assertEquals(12, Files.size(dest));
+			assertEquals(1, Files.list(directory).count());
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void deleteFilePart() throws Exception {
+		Path directory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		try {
+			this.partReader.setFileStorageDirectory(directory);
+			this.partReader.setMaxInMemorySize(5);
+			MultiValueMap<String, Part> parts =
+					this.reader.readMono(MULTIPART_TYPE, generateMultipartRequest(4), emptyMap()).block();
+			assertNotNull(parts);
+			assertEquals(1, Files.list(directory).count());
+
+			parts.getFirst("fooPart").delete().block(Duration.ofSeconds(5));
+			assertEquals(0, Files.list(directory).count());
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void filesDeletedOnBodyError() throws Exception {
+		Path directory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		try {
+			this.partReader.setFileStorageDirectory(directory);
+			this.partReader.setMaxInMemorySize(5);
+			ServerHttpRequest request = generateMultipartRequest(4);
+			Flux<DataBuffer> body = DataBufferUtils.join(request.getBody())
+					.map(buffer -> {
+						// Cut off within the headers of the part after the file part
+						byte[] bytes = new byte[buffer.readableByteCount()];
+						buffer.read(bytes);
+						DataBufferUtils.release(buffer);
+						int length = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("name=\"barPart\"");
+						return this.bufferFactory.wrap(Arrays.copyOf(bytes, length));
+					})
+					.flux()
+					.concatWith(Flux.error(new IllegalStateException("boo")));
+			request = MockServerHttpRequest.post("/")
+					.contentType(request.getHeaders().getContentType())
+					.body(body);
+
+			StepVerifier.create(this.reader.readMono(MULTIPART_TYPE, request, emptyMap()))
+					.expectError(IllegalStateException.class)
+					.verify(Duration.ofSeconds(5));
+
+			// Deletion happens asynchronously on the blocking operation scheduler
+			for (int i = 0; i < 50 && Files.list(directory).count() > 0; i++) {
+				Thread.sleep(100);
+			}
+			assertEquals(0, Files.list(directory).count());
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void fileDeletedOnCancel() throws Exception {
+		Path directory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		try {
+			this.partReader.setFileStorageDirectory(directory);
+			this.partReader.setMaxInMemorySize(5);
+			// File part whose content never ends
+			byte[] content = new byte[100];
+			Arrays.fill(content, (byte) 'x');
+			String headers = "--abc\r\nContent-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n\r\n";
+			Flux<DataBuffer> body = Flux.just(this.bufferFactory.wrap(headers.getBytes(StandardCharsets.ISO_8859_1)),
+					this.bufferFactory.wrap(content)).concatWith(Flux.never());
+			ServerHttpRequest request = MockServerHttpRequest.post("/")
+					.header(CONTENT_TYPE, MULTIPART_FORM_DATA.toString() + ";boundary=abc")
+					.body(body);
+
+			StepVerifier.create(this.partReader.read(forClass(Part.class), request, emptyMap()))
+					.expectSubscription()
+					.then(() -> awaitFileCount(directory, 1))
+					.thenCancel()
+					.verify(Duration.ofSeconds(5));
+
+			// Deletion happens asynchronously on the blocking operation scheduler
+			awaitFileCount(directory, 0);
+			assertEquals(0, Files.list(directory).count());
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void formFieldExceedingMaxInMemorySize() {
+		this.partReader.setMaxInMemorySize(2);
+		StepVerifier.create(this.reader.readMono(MULTIPART_TYPE, generateMultipartRequest(0), emptyMap()))
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
+	@Test
+	public void streamParts() {
+		this.partReader.setStreaming(true);
+		Flux<String> result = this.partReader.read(forClass(Part.class), generateMultipartRequest(1), emptyMap())
+				.concatMap(part -> DataBufferUtils.join(part.content())
+						.map(buffer -> part.name() + "=" + toString(buffer)));
+
+		StepVerifier.create(result)
+				.expectNext("fooPart=Lorem Ipsum.")
+				.expectNext("barPart=bar")
+				.verifyComplete();
+	}
+
+	@Test
+	public void bodyError() {
+		ServerHttpRequest request = MockServerHttpRequest.post("/")
+				.header(CONTENT_TYPE, MULTIPART_FORM_DATA.toString() + ";boundary=abc")
+				.body(Flux.just(this.bufferFactory.wrap("invalid content".getBytes())));
+		StepVerifier.create(this.reader.readMono(MULTIPART_TYPE, request, emptyMap())).verifyError();
+	}
+
+	@Test
+	public void noBoundary() {
+		ServerHttpRequest request = MockServerHttpRequest.post("/")
+				.header(CONTENT_TYPE, MULTIPART_FORM_DATA.toString())
+				.body(Flux.just(this.bufferFactory.wrap("invalid content".getBytes())));
+		StepVerifier.create(this.reader.readMono(MULTIPART_TYPE, request, emptyMap()))
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
+
+	private void assertParts(MultiValueMap<String, Part> parts) {
+		assertNotNull(parts);
+		assertEquals(2, parts.size());
+
+		Part part = parts.getFirst("fooPart");
+		assertTrue(part instanceof FilePart);
+		assertEquals("fooPart", part.name());
+		assertEquals("foo.txt", ((FilePart) part).filename());
+		assertEquals("Lorem Ipsum.", contentAsString(part));
+
+		part = parts.getFirst("barPart");
+		assertTrue(part instanceof FormFieldPart);
+		assertEquals("barPart", part.name());
+		assertEquals("bar", ((FormFieldPart) part).value());
+	}
+
+	private static void awaitFileCount(Path directory, long count) {
+		try {
+			for (int i = 0; i < 50 && Files.list(directory).count() != count; i++) {
+				Thread.sleep(100);
+			}
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private String contentAsString(Part part) {
+		return toString(DataBufferUtils.join(part.content()).block(Duration.ofSeconds(5)));
+	}
+
+	private String toString(DataBuffer buffer) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private ServerHttpRequest generateMultipartRequest(int chunkSize) {
+		MultipartBodyBuilder partsBuilder = new MultipartBodyBuilder();
+		partsBuilder.part("fooPart", new ClassPathResource("org/springframework/http/codec/multipart/foo.txt"));
+		partsBuilder.part("barPart", "bar");
+
+		MockClientHttpRequest outputMessage = new MockClientHttpRequest(HttpMethod.POST, "/");
+		new MultipartHttpMessageWriter()
+				.write(Mono.just(partsBuilder.build()), null, MediaType.MULTIPART_FORM_DATA, outputMessage, null)
+				.block(Duration.ofSeconds(5));
+
+		Flux<DataBuffer> body = outputMessage.getBody();
+		if (chunkSize > 0) {
+			body = DataBufferUtils.join(body).flatMapMany(buffer -> {
+				byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				DataBufferUtils.release(buffer);
+				List<DataBuffer> chunks = new ArrayList<>();
+				for (int i = 0; i < bytes.length; i += chunkSize) {
+					int end = Math.min(i + chunkSize, bytes.length);
+					chunks.add(this.bufferFactory.wrap(Arrays.copyOfRange(bytes, i, end)));
+				}
+				return Flux.fromIterable(chunks);
+			});
+		}
+		return MockServerHttpRequest.post("/")
+				.contentType(outputMessage.getHeaders().getContentType())
+				.body(body);
+	}
+
+}
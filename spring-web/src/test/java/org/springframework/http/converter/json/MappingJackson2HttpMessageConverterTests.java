@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,20 +20,28 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.http.MockHttpInputMessage;
@@ -432,6 +440,49 @@ public class MappingJackson2HttpMessageConverterTests {
 		assertTrue(result.contains("\"number\":123"));
 	}
 
+	@Test
+	public void containerTypeWriterCache() throws Exception {
+		MyBean bean = new MyBean();
+		bean.setString("Foo");
+		Type beansType = new ParameterizedTypeReference<List<MyBean>>() {}.getType();
+		Type stringsType = new ParameterizedTypeReference<List<String>>() {}.getType();
+		Map<?, ?> cache = (Map<?, ?>) new DirectFieldAccessor(this.converter)
+				.getPropertyValue("containerTypeWriterCache");
+
+		writeInternal(Arrays.asList(bean, null), beansType);
+		assertEquals(1, cache.size());
+		Object cachedWriter = cache.values().iterator().next();
+
+		String result = writeInternal(Arrays.asList(bean, null), beansType);
+		assertTrue(result.contains("\"string\":\"Foo\""));
+		assertTrue(result.endsWith(",null]"));
+		assertSame("Cache hit expected", cachedWriter, cache.values().iterator().next());
+
+		writeInternal(Collections.singletonList("Bar"), stringsType);
+		assertEquals("Cache miss expected for another type", 2, cache.size());
+	}
+
+	@Test
+	public void containerTypeWriterCacheInvalidatedByObjectMapperChanges() throws Exception {
+		Type type = new ParameterizedTypeReference<List<String>>() {}.getType();
+		ObjectMapper objectMapper = this.converter.getObjectMapper();
+		assertEquals("[\"Foo\",null]", writeInternal(Arrays.asList("Foo", null), type));
+
+		objectMapper.configure(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED, true);
+		assertEquals("\"Foo\"", writeInternal(Collections.singletonList("Foo"), type));
+
+		DefaultSerializerProvider serializerProvider = new DefaultSerializerProvider.Impl();
+		serializerProvider.setNullValueSerializer(new JsonSerializer<Object>() {
+			@Override
+			public void serialize(Object value, JsonGenerator generator, SerializerProvider provider)
+					throws IOException {
+				generator.writeString("none");
+			}
+		});
+		objectMapper.setSerializerProvider(serializerProvider);
+		assertEquals("[\"Foo\",\"none\"]", writeInternal(Arrays.asList("Foo", null), type));
+	}
+
 	@Test
 	public void readWithNoDefaultConstructor() throws Exception {
 		String body = "{\"property1\":\"foo\",\"property2\":\"bar\"}";
@@ -447,6 +498,12 @@ public class MappingJackson2HttpMessageConverterTests {
 		fail();
 	}
 
+	private String writeInternal(Object value, Type type) throws IOException {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.writeInternal(value, type, outputMessage);
+		return outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+	}
+
 
 	interface MyInterface {
 
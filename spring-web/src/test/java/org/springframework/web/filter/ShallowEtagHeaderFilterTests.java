@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 
 package org.springframework.web.filter;
 
+import java.io.PrintWriter;
 import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Test;
@@ -27,6 +30,7 @@ import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StreamUtils;
 
 import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
 
 /**
  * @author Arjen Poutsma
@@ -179,6 +183,126 @@ public class ShallowEtagHeaderFilterTests {
 		assertArrayEquals(responseBody, response.getContentAsByteArray());
 	}
 
+	@Test
+	public void filterWithinContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+
+		this.filter.setContentCacheLimit(responseBody.length);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertArrayEquals(responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write("Hello".getBytes("UTF-8"));
+			filterResponse.getOutputStream().write(" World".getBytes("UTF-8"));
+		};
+
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader("ETag"));
+		assertEquals("Hello World", response.getContentAsString());
+	}
+
+	@Test
+	public void filterWriterExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getWriter().write("Hello");
+			filterResponse.getWriter().write(" World");
+		};
+
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader("ETag"));
+		assertEquals("Hello World", response.getContentAsString());
+	}
+
+	@Test
+	public void filterWriterExceedingContentCacheLimitFlushedOnlyOnRequest() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			PrintWriter writer = filterResponse.getWriter();
+			writer.write("Hello World");
+			writer.write("!");
+			assertFalse("Writes must not flush the response", response.isCommitted());
+			writer.flush();
+			assertTrue(response.isCommitted());
+		};
+
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertNull(response.getHeader("ETag"));
+		assertEquals("Hello World!", response.getContentAsString());
+	}
+
+	@Test
+	public void filterWithContentCacheLimitDelegatesNonBlockingOutput() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		ServletOutputStream outputStream = mock(ServletOutputStream.class);
+		given(outputStream.isReady()).willReturn(false);
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		given(response.getOutputStream()).willReturn(outputStream);
+		WriteListener writeListener = mock(WriteListener.class);
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			ServletOutputStream filterOutputStream = filterResponse.getOutputStream();
+			assertFalse(filterOutputStream.isReady());
+			filterOutputStream.setWriteListener(writeListener);
+		};
+
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		verify(outputStream).setWriteListener(writeListener);
+	}
+
+	@Test
+	public void filterContentLengthExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.setContentLength(responseBody.length);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertNull(response.getHeader("ETag"));
+		assertEquals(responseBody.length, response.getContentLength());
+		assertArrayEquals(responseBody, response.getContentAsByteArray());
+	}
+
 	@Test
 	public void filterSendError() throws Exception {
 		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.multipart.commons;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CommonsStreamingMultipartParser}.
+ */
+public class CommonsStreamingMultipartParserTests {
+
+	private static final String BOUNDARY = "----boundary";
+
+	private final CommonsStreamingMultipartParser parser = new CommonsStreamingMultipartParser();
+
+
+	@Test
+	public void parseParts() throws Exception {
+		Iterator<CommonsStreamingPart> parts = this.parser.parse(multipartRequest());
+
+		assertTrue(parts.hasNext());
+		CommonsStreamingPart part = parts.next();
+		assertEquals("field", part.getName());
+		assertTrue(part.isFormField());
+		assertNull(part.getOriginalFilename());
+		assertEquals("value", part.getString());
+
+		assertTrue(parts.hasNext());
+		part = parts.next();
+		assertEquals("file", part.getName());
+		assertFalse(part.isFormField());
+		assertEquals("test.txt", part.getOriginalFilename());
+		assertEquals("text/plain", part.getContentType());
+		assertEquals("text/plain", part.getHeaders().getFirst("Content-Type"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(11, part.transferTo(out));
+		assertEquals("Hello World", out.toString("UTF-8"));
+
+		assertFalse(parts.hasNext());
+	}
+
+	@Test
+	public void transferToChannel() throws Exception {
+		Iterator<CommonsStreamingPart> parts = this.parser.parse(multipartRequest());
+		parts.next();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(11, parts.next().transferTo(Channels.newChannel(out)));
+		assertEquals("Hello World", out.toString("UTF-8"));
+	}
+
+	@Test
+	public void skipUnreadPart() throws Exception {
+		Iterator<CommonsStreamingPart> parts = this.parser.parse(multipartRequest());
+		parts.next();
+		assertEquals("Hello World", new String(parts.next().getBytes(), StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = MultipartException.class)
+	public void partExceedsMaxInMemorySize() throws Exception {
+		this.parser.setMaxInMemorySize(5);
+		Iterator<CommonsStreamingPart> parts = this.parser.parse(multipartRequest());
+		parts.next();
+		parts.next().getBytes();
+	}
+
+	@Test
+	public void fileExceedsMaxUploadSizePerFile() throws Exception {
+		this.parser.setMaxUploadSizePerFile(5);
+		Iterator<CommonsStreamingPart> parts = this.parser.parse(multipartRequest());
+		parts.next();
+		try {
+			parts.next().transferTo(new ByteArrayOutputStream());
+			fail("Should have thrown MaxUploadSizeExceededException");
+		}
+		catch (MaxUploadSizeExceededException ex) {
+			assertEquals(5, ex.getMaxUploadSize());
+		}
+	}
+
+	@Test
+	public void requestExceedsMaxUploadSize() throws Exception {
+		this.parser.setMaxUploadSize(10);
+		try {
+			this.parser.parse(multipartRequest());
+			fail("Should have thrown MaxUploadSizeExceededException");
+		}
+		catch (MaxUploadSizeExceededException ex) {
+			assertEquals(10, ex.getMaxUploadSize());
+		}
+	}
+
+
+	private MockHttpServletRequest multipartRequest() {
+		String body = "--" + BOUNDARY + "\r\n" +
+				"Content-Disposition: form-data; name=\"field\"\r\n" +
+				"\r\n" +
+				"value\r\n" +
+				"--" + BOUNDARY + "\r\n" +
+				"Content-Disposition: form-data; name=\"file\"; filename=\"test.txt\"\r\n" +
+				"Content-Type: text/plain\r\n" +
+				"\r\n" +
+				"Hello World\r\n" +
+				"--" + BOUNDARY + "--\r\n";
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+		request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package org.springframework.web.util;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -180,4 +181,35 @@ public class DefaultUriBuilderFactoryTests {
 		assertEquals("/foo/bar", uri.toString());
 	}
 
+	@Test
+	public void expandSameTemplateRepeatedly() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory("http://example.com");
+		assertEquals("http://example.com/hotels/1?q=a%20b", factory.expand("/hotels/{id}?q={q}", 1, "a b").toString());
+		assertEquals("http://example.com/hotels/2?q=c%26d", factory.expand("/hotels/{id}?q={q}", 2, "c&d").toString());
+		Map<String, Object> uriVars = new HashMap<>();
+		uriVars.put("id", 3);
+		uriVars.put("q", "e");
+		assertEquals("http://example.com/hotels/3?q=e", factory.expand("/hotels/{id}?q={q}", uriVars).toString());
+	}
+
+	@Test
+	public void expandSameTemplateAfterSettingsChange() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+		assertEquals("/foo/a%2Fb", factory.expand("/foo/{bar}", "a/b").toString());
+		factory.setEncodingMode(EncodingMode.NONE);
+		assertEquals("/foo/a/b", factory.expand("/foo/{bar}", "a/b").toString());
+	}
+
+	@Test
+	public void expandWithOverriddenUriString() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory() {
+			@Override
+			public UriBuilder uriString(String uriTemplate) {
+				return super.uriString(uriTemplate).queryParam("v", "1");
+			}
+		};
+		assertEquals("/foo/a?v=1", factory.expand("/foo/{bar}", "a").toString());
+		assertEquals("/foo/b?v=1", factory.expand("/foo/{bar}", Collections.singletonMap("bar", "b")).toString());
+	}
+
 }
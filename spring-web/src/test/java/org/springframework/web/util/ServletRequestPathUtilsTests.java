@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ */
+public class ServletRequestPathUtilsTests {
+
+	@Test
+	public void parseAndCache() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a%20b;c=d/e");
+		request.setContextPath("/app");
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals("/app", requestPath.contextPath().value());
+		assertEquals("/a%20b;c=d/e", requestPath.pathWithinApplication().value());
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+	}
+
+	@Test
+	public void parseAndCacheForInclude() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/outer");
+		request.setContextPath("/app");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/inner");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals("/inner", requestPath.pathWithinApplication().value());
+	}
+
+	@Test
+	public void restoreParsedRequestPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/path");
+		RequestPath requestPath = ServletRequestPathUtils.getParsedRequestPath(request);
+		assertTrue(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(null, request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+		ServletRequestPathUtils.setParsedRequestPath(requestPath, request);
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+	}
+
+}
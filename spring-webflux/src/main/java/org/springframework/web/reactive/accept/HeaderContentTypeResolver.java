@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.reactive.accept;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.util.CollectionUtils;
@@ -35,12 +36,12 @@ public class HeaderContentTypeResolver implements RequestedContentTypeResolver {
 	@Override
 	public List<MediaType> resolveMediaTypes(ServerWebExchange exchange) throws NotAcceptableStatusException {
 		try {
-			List<MediaType> mediaTypes = exchange.getRequest().getHeaders().getAccept();
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
+			List<MediaType> mediaTypes = MediaType.parseAcceptHeader(
+					exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT));
 			return (!CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST);
 		}
 		catch (InvalidMediaTypeException ex) {
-			String value = exchange.getRequest().getHeaders().getFirst("Accept");
+			String value = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
 			throw new NotAcceptableStatusException(
 					"Could not parse 'Accept' header [" + value + "]: " + ex.getMessage());
 		}
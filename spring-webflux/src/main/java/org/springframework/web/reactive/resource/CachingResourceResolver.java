@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,29 @@
 
 package org.springframework.web.reactive.resource;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -36,6 +46,9 @@ import org.springframework.web.server.ServerWebExchange;
  * A {@link ResourceResolver} that resolves resources from a {@link Cache} or
  * otherwise delegates to the resolver chain and caches the result.
  *
+ * <p>Optionally, the content of small resources can be cached in memory as
+ * well, see {@link #setContentCacheLimit}.
+ *
  * @author Rossen Stoyanchev
  * @author Brian Clozel
  * @since 5.0
@@ -52,11 +65,15 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 	 */
 	public static final String RESOLVED_URL_PATH_CACHE_KEY_PREFIX = "resolvedUrlPath:";
 
+	private static final DataBufferFactory dataBufferFactory = new DefaultDataBufferFactory();
+
 
 	private final Cache cache;
 
 	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
 
+	private int contentCacheLimit = 0;
+
 
 	public CachingResourceResolver(Cache cache) {
 		Assert.notNull(cache, "Cache is required");
@@ -103,6 +120,28 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return Collections.unmodifiableList(this.contentCodings);
 	}
 
+	/**
+	 * Set the maximum content length of resources whose content should be
+	 * cached in memory along with the resolved resource. Such resources are
+	 * served from the cached bytes, with a pre-computed ETag and Last-Modified
+	 * value, without accessing the underlying resource again; this is therefore
+	 * only appropriate for resources that do not change at runtime.
+	 * <p>By default this is set to 0, i.e. resource content is not cached.
+	 * @param contentCacheLimit the maximum content length in bytes
+	 * @since 5.2
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum content length of resources whose content is cached.
+	 * @since 5.2
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
 
 	@Override
 	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
@@ -118,9 +157,40 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		}
 
 		return chain.resolveResource(exchange, requestPath, locations)
+				.flatMap(this::cacheContent)
 				.doOnNext(resource -> this.cache.put(key, resource));
 	}
 
+	private Mono<Resource> cacheContent(Resource resource) {
+		if (this.contentCacheLimit <= 0 || resource instanceof CachedContentResource) {
+			return Mono.just(resource);
+		}
+		try {
+			if (!resource.isReadable() || resource.contentLength() > this.contentCacheLimit) {
+				return Mono.just(resource);
+			}
+		}
+		catch (IOException ex) {
+			return Mono.just(resource);
+		}
+		Flux<DataBuffer> flux = DataBufferUtils.read(resource, dataBufferFactory, StreamUtils.BUFFER_SIZE);
+		return DataBufferUtils.join(flux)
+				.map(buffer -> {
+					byte[] content = new byte[buffer.readableByteCount()];
+					buffer.read(content);
+					DataBufferUtils.release(buffer);
+					return content;
+				})
+				.flatMap(content -> Mono.fromCallable(() -> (Resource) new CachedContentResource(resource, content)))
+				.onErrorResume(ex -> {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to cache content of " + resource + ": " + ex.getMessage());
+					}
+					return Mono.just(resource);
+				})
+				.defaultIfEmpty(resource);
+	}
+
 	protected String computeKey(@Nullable ServerWebExchange exchange, String requestPath) {
 		StringBuilder key = new StringBuilder(RESOLVED_RESOURCE_CACHE_KEY_PREFIX);
 		key.append(requestPath);
@@ -165,4 +235,49 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 				.doOnNext(resolvedPath -> this.cache.put(key, resolvedPath));
 	}
 
+
+	/**
+	 * A resource with its content cached in memory, exposing the response
+	 * headers of the original resource plus a pre-computed ETag.
+	 */
+	static final class CachedContentResource extends ByteArrayResource implements HttpResource {
+
+		@Nullable
+		private final String filename;
+
+		private final long lastModified;
+
+		private final HttpHeaders responseHeaders = new HttpHeaders();
+
+		CachedContentResource(Resource original, byte[] content) throws IOException {
+			super(content, original.getDescription());
+			this.filename = original.getFilename();
+			this.lastModified = original.lastModified();
+			if (original instanceof HttpResource) {
+				this.responseHeaders.putAll(((HttpResource) original).getResponseHeaders());
+			}
+			if (this.responseHeaders.getETag() == null) {
+				this.responseHeaders.setETag("\"" + DigestUtils.md5DigestAsHex(content) + "\"");
+			}
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.filename;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			headers.putAll(this.responseHeaders);
+			return headers;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.web.reactive.result.method.annotation;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
@@ -28,13 +30,17 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.web.bind.annotation.CacheResponse;
 import org.springframework.web.bind.support.WebBindingInitializer;
+import org.springframework.web.filter.reactive.ResponseCachingWebFilter;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerAdapter;
@@ -76,6 +82,8 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 	@Nullable
 	private ModelInitializer modelInitializer;
 
+	private final Map<MethodClassKey, Boolean> cacheResponseCache = new ConcurrentHashMap<>(64);
+
 
 	/**
 	 * Configure HTTP message readers to de-serialize the request body with.
@@ -186,6 +194,10 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 		HandlerMethod handlerMethod = (HandlerMethod) handler;
 		Assert.state(this.methodResolver != null && this.modelInitializer != null, "Not initialized");
 
+		if (isCacheResponse(handlerMethod)) {
+			ResponseCachingWebFilter.cacheResponse(exchange);
+		}
+
 		InitBinderBindingContext bindingContext = new InitBinderBindingContext(
 				getWebBindingInitializer(), this.methodResolver.getInitBinderMethods(handlerMethod));
 
@@ -202,6 +214,17 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 				.onErrorResume(exceptionHandler);
 	}
 
+	/**
+	 * Whether the given handler method, or its handler type, is annotated with
+	 * {@link CacheResponse @CacheResponse}.
+	 */
+	private boolean isCacheResponse(HandlerMethod handlerMethod) {
+		MethodClassKey cacheKey = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+		return this.cacheResponseCache.computeIfAbsent(cacheKey, key ->
+				(handlerMethod.hasMethodAnnotation(CacheResponse.class) ||
+						AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), CacheResponse.class)));
+	}
+
 	private Mono<HandlerResult> handleException(Throwable exception, HandlerMethod handlerMethod,
 			BindingContext bindingContext, ServerWebExchange exchange) {
 
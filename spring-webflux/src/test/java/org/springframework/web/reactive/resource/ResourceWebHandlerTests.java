@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -167,6 +167,21 @@ public class ResourceWebHandlerTests {
 		assertEquals(1, exchange.getResponse().getHeaders().get("Accept-Ranges").size());
 	}
 
+	@Test
+	public void getVersionedResourceWithMatchingETag() throws Exception {
+		VersionResourceResolver versionResolver = new VersionResourceResolver();
+		versionResolver.addFixedVersionStrategy("versionString", "/**");
+		this.handler.setResourceResolvers(Arrays.asList(versionResolver, new PathResourceResolver()));
+		this.handler.afterPropertiesSet();
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("")
+				.header("If-None-Match", "\"versionString\""));
+		setPathWithinHandlerMapping(exchange, "versionString/foo.css");
+		this.handler.handle(exchange).block(TIMEOUT);
+
+		assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+	}
+
 	@Test
 	public void getResourceWithHtmlMediaType() throws Exception {
 		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(""));
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.result.method.annotation;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.web.test.server.MockServerWebExchange;
+import org.springframework.web.bind.annotation.CacheResponse;
+import org.springframework.web.filter.reactive.ResponseCachingWebFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link RequestMappingHandlerAdapter}.
+ */
+public class RequestMappingHandlerAdapterTests {
+
+	private final RequestMappingHandlerAdapter handlerAdapter = new RequestMappingHandlerAdapter();
+
+
+	@Before
+	public void setup() throws Exception {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.refresh();
+		this.handlerAdapter.setApplicationContext(context);
+		this.handlerAdapter.afterPropertiesSet();
+	}
+
+
+	@Test
+	public void cacheResponseOnMethod() throws Exception {
+		Method method = CachedMethodController.class.getMethod("handle");
+		assertTrue(isCacheResponse(handle(new CachedMethodController(), method)));
+
+		method = BaseController.class.getMethod("handle");
+		assertFalse(isCacheResponse(handle(new UncachedTypeController(), method)));
+	}
+
+	@Test
+	public void cacheResponseOnTypeWithInheritedMethod() throws Exception {
+		Method method = BaseController.class.getMethod("handle");
+		assertTrue(isCacheResponse(handle(new CachedTypeController(), method)));
+		assertFalse("Same method on a type without @CacheResponse",
+				isCacheResponse(handle(new UncachedTypeController(), method)));
+	}
+
+
+	private ServerWebExchange handle(Object controller, Method method) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		this.handlerAdapter.handle(exchange, new HandlerMethod(controller, method)).block(Duration.ZERO);
+		return exchange;
+	}
+
+	private boolean isCacheResponse(ServerWebExchange exchange) {
+		return (exchange.getAttribute(ResponseCachingWebFilter.class.getName() + ".CACHEABLE") != null);
+	}
+
+
+	public static class CachedMethodController {
+
+		@CacheResponse
+		public String handle() {
+			return "cached";
+		}
+	}
+
+
+	public static class BaseController {
+
+		public String handle() {
+			return "base";
+		}
+	}
+
+
+	@CacheResponse
+	public static class CachedTypeController extends BaseController {
+	}
+
+
+	public static class UncachedTypeController extends BaseController {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -200,6 +200,10 @@ public abstract class FrameworkServlet extends HttpServletBean implements Applic
 	/** Should we publish a ServletRequestHandledEvent at the end of each request?. */
 	private boolean publishEvents = true;
 
+	/** Listener to notify at the end of each request. */
+	@Nullable
+	private RequestHandledListener requestHandledListener;
+
 	/** Expose LocaleContext and RequestAttributes as inheritable for child threads?. */
 	private boolean threadContextInheritable = false;
 
@@ -222,6 +226,9 @@ public abstract class FrameworkServlet extends HttpServletBean implements Applic
 	/** Whether to log potentially sensitive info (request params at DEBUG + headers at TRACE). */
 	private boolean enableLoggingRequestDetails = false;
 
+	/** Stateless interceptor for binding the context holders to async Callable threads. */
+	private final RequestBindingInterceptor requestBindingInterceptor = new RequestBindingInterceptor();
+
 
 	/**
 	 * Create a new {@code FrameworkServlet} that will create its own internal web
@@ -419,6 +426,16 @@ public abstract class FrameworkServlet extends HttpServletBean implements Applic
 		this.publishEvents = publishEvents;
 	}
 
+	/**
+	 * Set a listener to notify at the end of each request, as a lightweight
+	 * alternative to {@link #setPublishEvents ServletRequestHandledEvents}.
+	 * <p>By default, no such listener is set.
+	 * @since 5.2
+	 */
+	public void setRequestHandledListener(@Nullable RequestHandledListener requestHandledListener) {
+		this.requestHandledListener = requestHandledListener;
+	}
+
 	/**
 	 * Set whether to expose the LocaleContext and RequestAttributes as inheritable
 	 * for child threads (using an {@link java.lang.InheritableThreadLocal}).
@@ -990,7 +1007,7 @@ public abstract class FrameworkServlet extends HttpServletBean implements Applic
 		ServletRequestAttributes requestAttributes = buildRequestAttributes(request, response, previousAttributes);
 
 		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
-		asyncManager.registerCallableInterceptor(FrameworkServlet.class.getName(), new RequestBindingInterceptor());
+		asyncManager.registerCallableInterceptor(FrameworkServlet.class.getName(), this.requestBindingInterceptor);
 
 		initContextHolders(request, localeContext, requestAttributes);
 
@@ -1127,6 +1144,16 @@ public abstract class FrameworkServlet extends HttpServletBean implements Applic
 	private void publishRequestHandledEvent(HttpServletRequest request, HttpServletResponse response,
 			long startTime, @Nullable Throwable failureCause) {
 
+		if (this.requestHandledListener != null) {
+			try {
+				this.requestHandledListener.requestHandled(
+						request, response, System.currentTimeMillis() - startTime, failureCause);
+			}
+			catch (Throwable ex) {
+				// Do not let a failing listener mask the outcome of the request itself.
+				logger.warn("RequestHandledListener threw exception", ex);
+			}
+		}
 		if (this.publishEvents && this.webApplicationContext != null) {
 			// Whether or not we succeeded, publish an event.
 			long processingTime = System.currentTimeMillis() - startTime;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -113,6 +113,18 @@ public interface HandlerMapping {
 	 */
 	String PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE = HandlerMapping.class.getName() + ".producibleMediaTypes";
 
+	/**
+	 * Whether this HandlerMapping instance matches parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns},
+	 * in which case the DispatcherServlet parses the request path once per
+	 * dispatch through {@link org.springframework.web.util.ServletRequestPathUtils#parseAndCache}.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.2
+	 */
+	default boolean usesPathPatterns() {
+		return false;
+	}
+
 	/**
 	 * Return a handler and any interceptors for this request. The choice may be made
 	 * on request URL, session state, or any factor the implementing class chooses.
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for being notified at the end of each request processed
+ * by a {@link FrameworkServlet}, e.g. for recording request metrics.
+ *
+ * <p>A lightweight alternative to listening for
+ * {@link org.springframework.web.context.support.ServletRequestHandledEvent
+ * ServletRequestHandledEvents}: the listener is invoked directly, without
+ * creating an event object and multicasting it through the application
+ * context, and it decides itself which request details to extract.
+ * Consider combining it with {@link FrameworkServlet#setPublishEvents
+ * "publishEvents"} switched off.
+ *
+ * @author agent
+ * @since 5.2
+ * @see FrameworkServlet#setRequestHandledListener
+ */
+@FunctionalInterface
+public interface RequestHandledListener {
+
+	/**
+	 * Notification that the given request has been processed, whether
+	 * successfully or not.
+	 * <p>Note that the response may still be open for further handling
+	 * in case of asynchronous request processing.
+	 * @param request the current request
+	 * @param response the current response
+	 * @param processingTimeMillis the processing time of the request, in milliseconds
+	 * @param failureCause the cause of failure, if any
+	 */
+	void requestHandled(HttpServletRequest request, HttpServletResponse response,
+			long processingTimeMillis, @Nullable Throwable failureCause);
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,9 +29,11 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.HttpRequestHandler;
 import org.springframework.web.context.request.WebRequestInterceptor;
@@ -45,7 +47,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -70,6 +75,11 @@ import org.springframework.web.util.UrlPathHelper;
 public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		implements HandlerMapping, Ordered, BeanNameAware {
 
+	private static final HandlerInterceptor[] NO_INTERCEPTORS = new HandlerInterceptor[0];
+
+	private static final int INTERCEPTOR_CACHE_LIMIT = 256;
+
+
 	@Nullable
 	private Object defaultHandler;
 
@@ -77,10 +87,21 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private final List<Object> interceptors = new ArrayList<>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
 
+	// Interceptors for every request, if none of them is mapped to specific paths
+	@Nullable
+	private HandlerInterceptor[] pathIndependentInterceptors;
+
+	// Interceptors per lookup path otherwise, shared across requests
+	@Nullable
+	private ConcurrentLruCache<String, HandlerInterceptor[]> interceptorsByLookupPath;
+
 	private CorsConfigurationSource corsConfigurationSource = new UrlBasedCorsConfigurationSource();
 
 	private CorsProcessor corsProcessor = new DefaultCorsProcessor();
@@ -171,6 +192,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		Assert.notNull(pathMatcher, "PathMatcher must not be null");
 		this.pathMatcher = pathMatcher;
+		if (this.interceptorsByLookupPath != null) {
+			this.interceptorsByLookupPath = createInterceptorCache();
+		}
 		if (this.corsConfigurationSource instanceof UrlBasedCorsConfigurationSource) {
 			((UrlBasedCorsConfigurationSource)this.corsConfigurationSource).setPathMatcher(pathMatcher);
 		}
@@ -184,6 +208,47 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set the {@link PathPatternParser} to parse URL patterns with, for
+	 * subclasses that support matching parsed {@link PathPattern PathPatterns}
+	 * against the {@link ServletRequestPathUtils#parseAndCache parsed request
+	 * path} instead of matching String patterns through the {@link PathMatcher}.
+	 * <p>Patterns are then matched against the path within the application,
+	 * with the "urlPathHelper" settings not being applied. This requires the
+	 * DispatcherServlet to be mapped to "/", not to a path prefix.
+	 * <p>This applies to handler mappings only: {@link MappedInterceptor}
+	 * path patterns, CORS mappings of a {@link UrlBasedCorsConfigurationSource}
+	 * and the locations served by a
+	 * {@link org.springframework.web.servlet.resource.ResourceHttpRequestHandler}
+	 * are still matched as String patterns through the {@link PathMatcher},
+	 * against the lookup path as determined by the {@link UrlPathHelper}.
+	 * <p>By default this is not set.
+	 * @since 5.2
+	 * @see #usesPathPatterns()
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser configured} PathPatternParser, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Whether this handler mapping matches parsed {@link PathPattern PathPatterns},
+	 * i.e. whether a {@link #setPatternParser PathPatternParser} has been set.
+	 * @since 5.2
+	 */
+	@Override
+	public boolean usesPathPatterns() {
+		return (this.patternParser != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -292,6 +357,7 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		extendInterceptors(this.interceptors);
 		detectMappedInterceptors(this.adaptedInterceptors);
 		initInterceptors();
+		initInterceptorLookup();
 	}
 
 	/**
@@ -362,6 +428,27 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		}
 	}
 
+	/**
+	 * Prepare the lookup of interceptors per request: a fixed array if no
+	 * {@link MappedInterceptor} has path patterns, or a cache of the
+	 * interceptors matching each lookup path otherwise.
+	 */
+	private void initInterceptorLookup() {
+		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
+			if (interceptor instanceof MappedInterceptor && !((MappedInterceptor) interceptor).matchesAllPaths()) {
+				this.pathIndependentInterceptors = null;
+				this.interceptorsByLookupPath = createInterceptorCache();
+				return;
+			}
+		}
+		this.pathIndependentInterceptors = resolveInterceptors("");
+		this.interceptorsByLookupPath = null;
+	}
+
+	private ConcurrentLruCache<String, HandlerInterceptor[]> createInterceptorCache() {
+		return new ConcurrentLruCache<>(INTERCEPTOR_CACHE_LIMIT, this::resolveInterceptors);
+	}
+
 	/**
 	 * Return the adapted interceptors as {@link HandlerInterceptor} array.
 	 * @return the array of {@link HandlerInterceptor HandlerInterceptors}, or {@code null} if none
@@ -470,22 +557,76 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	 * @see #getAdaptedInterceptors()
 	 */
 	protected HandlerExecutionChain getHandlerExecutionChain(Object handler, HttpServletRequest request) {
-		HandlerExecutionChain chain = (handler instanceof HandlerExecutionChain ?
-				(HandlerExecutionChain) handler : new HandlerExecutionChain(handler));
+		HandlerInterceptor[] interceptors = this.pathIndependentInterceptors;
+		if (interceptors == null) {
+			String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+			interceptors = getInterceptors(lookupPath);
+		}
+		if (handler instanceof HandlerExecutionChain) {
+			HandlerExecutionChain chain = (HandlerExecutionChain) handler;
+			chain.addInterceptors(interceptors);
+			return chain;
+		}
+		// The array is shared across requests: hand a copy to the chain
+		return new HandlerExecutionChain(handler, (interceptors.length > 0 ? interceptors.clone() : null));
+	}
+
+	private HandlerInterceptor[] getInterceptors(String lookupPath) {
+		ConcurrentLruCache<String, HandlerInterceptor[]> cache = this.interceptorsByLookupPath;
+		return (cache != null ? cache.get(lookupPath) : resolveInterceptors(lookupPath));
+	}
 
-		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+	private HandlerInterceptor[] resolveInterceptors(String lookupPath) {
+		List<HandlerInterceptor> interceptors = new ArrayList<>(this.adaptedInterceptors.size());
 		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
 			if (interceptor instanceof MappedInterceptor) {
 				MappedInterceptor mappedInterceptor = (MappedInterceptor) interceptor;
 				if (mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
-					chain.addInterceptor(mappedInterceptor.getInterceptor());
+					interceptors.add(mappedInterceptor.getInterceptor());
 				}
 			}
 			else {
-				chain.addInterceptor(interceptor);
+				interceptors.add(interceptor);
 			}
 		}
-		return chain;
+		return (!interceptors.isEmpty() ? interceptors.toArray(NO_INTERCEPTORS) : NO_INTERCEPTORS);
+	}
+
+	/**
+	 * Determine the lookup path for the given request: the path within the
+	 * application from the {@link ServletRequestPathUtils#getParsedRequestPath
+	 * parsed request path} if {@link #usesPathPatterns() PathPatterns} are used,
+	 * without path parameters but still encoded, or the lookup path as determined
+	 * by the {@link #getUrlPathHelper() UrlPathHelper} otherwise.
+	 * @param request current HTTP request
+	 * @return the lookup path
+	 * @since 5.2
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			RequestPath requestPath = ServletRequestPathUtils.getParsedRequestPath(request);
+			String lookupPath = requestPath.pathWithinApplication().value();
+			return removePathParameters(lookupPath);
+		}
+		return this.urlPathHelper.getLookupPathForRequest(request);
+	}
+
+	private static String removePathParameters(String path) {
+		int semicolonIndex = path.indexOf(';');
+		if (semicolonIndex == -1) {
+			return path;
+		}
+		StringBuilder sb = new StringBuilder(path.length());
+		int index = 0;
+		while (semicolonIndex != -1) {
+			sb.append(path, index, semicolonIndex);
+			index = path.indexOf('/', semicolonIndex);
+			if (index == -1) {
+				return sb.toString();
+			}
+			semicolonIndex = path.indexOf(';', index);
+		}
+		return sb.append(path, index, path.length()).toString();
 	}
 
 	/**
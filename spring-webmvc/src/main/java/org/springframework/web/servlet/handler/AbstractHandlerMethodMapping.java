@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +41,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
@@ -341,7 +343,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		this.mappingRegistry.acquireReadLock();
 		try {
 			HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
@@ -369,8 +371,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// No choice but to go through all mappings with a matching literal path prefix...
+			Collection<T> candidateMappings = (isPathPrefixIndexApplicable() ?
+					this.mappingRegistry.getMappingsByPathPrefix(lookupPath) :
+					this.mappingRegistry.getMappings().keySet());
+			addMatchingMappings(candidateMappings, matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -410,6 +415,20 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 	}
 
+	/**
+	 * Whether the literal leading segments of the {@link #getMappingPathPatterns
+	 * mapping path patterns} may be used to narrow down the mappings to check
+	 * for a lookup path without a direct URL match.
+	 * <p>This requires that all path patterns of a mapping are exposed through
+	 * {@link #getMappingPathPatterns} and that literal pattern segments, separated
+	 * by "/", only match the very same lookup path segments. The default
+	 * implementation returns {@code false}, checking all mappings instead.
+	 * @since 5.2
+	 */
+	protected boolean isPathPrefixIndexApplicable() {
+		return false;
+	}
+
 	/**
 	 * Invoked when a matching mapping is found.
 	 * @param mapping the matching mapping
@@ -512,6 +531,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
+		private final PathPrefixNode<T> pathPrefixIndex = new PathPrefixNode<>();
+
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
 		/**
@@ -531,6 +552,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return all mappings whose path patterns may match the given URL path,
+		 * as determined by their literal leading path segments. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPathPrefix(String urlPath) {
+			PathPrefixNode<T> node = this.pathPrefixIndex;
+			Set<T> mappings = new LinkedHashSet<>(node.mappings);
+			for (String segment : StringUtils.tokenizeToStringArray(urlPath, "/", false, true)) {
+				node = node.children.get(segment);
+				if (node == null) {
+					break;
+				}
+				mappings.addAll(node.mappings);
+			}
+			return mappings;
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -571,6 +610,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
+				addToPathPrefixIndex(mapping);
 
 				String name = null;
 				if (getNamingStrategy() != null) {
@@ -610,6 +650,59 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return urls;
 		}
 
+		private void addToPathPrefixIndex(T mapping) {
+			Set<String> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				this.pathPrefixIndex.mappings.add(mapping);
+			}
+			for (String pattern : patterns) {
+				PathPrefixNode<T> node = this.pathPrefixIndex;
+				for (String segment : getLiteralPrefixSegments(pattern)) {
+					node = node.children.computeIfAbsent(segment, key -> new PathPrefixNode<>());
+				}
+				if (!node.mappings.contains(mapping)) {
+					node.mappings.add(mapping);
+				}
+			}
+		}
+
+		private void removeFromPathPrefixIndex(T mapping) {
+			Set<String> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				this.pathPrefixIndex.mappings.remove(mapping);
+			}
+			for (String pattern : patterns) {
+				PathPrefixNode<T> node = this.pathPrefixIndex;
+				for (String segment : getLiteralPrefixSegments(pattern)) {
+					node = node.children.get(segment);
+					if (node == null) {
+						break;
+					}
+				}
+				if (node != null) {
+					node.mappings.remove(mapping);
+				}
+			}
+		}
+
+		/**
+		 * Determine the leading path segments of the given pattern that need to
+		 * be matched literally. The last segment is never included, since it may
+		 * also match with a file extension or a trailing slash.
+		 */
+		private List<String> getLiteralPrefixSegments(String pattern) {
+			String[] segments = StringUtils.tokenizeToStringArray(pattern, "/", false, true);
+			List<String> literalSegments = new ArrayList<>(segments.length);
+			for (int i = 0; i < segments.length - 1; i++) {
+				String segment = segments[i];
+				if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1) {
+					break;
+				}
+				literalSegments.add(segment);
+			}
+			return literalSegments;
+		}
+
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -648,6 +741,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				removeFromPathPrefixIndex(definition.getMapping());
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
@@ -682,6 +777,18 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	}
 
 
+	/**
+	 * Node of the path prefix index, holding the mappings whose literal path
+	 * prefix ends at this node, and child nodes per next path segment.
+	 */
+	private static class PathPrefixNode<T> {
+
+		final Map<String, PathPrefixNode<T>> children = new HashMap<>();
+
+		final List<T> mappings = new ArrayList<>();
+	}
+
+
 	private static class MappingRegistration<T> {
 
 		private final T mapping;
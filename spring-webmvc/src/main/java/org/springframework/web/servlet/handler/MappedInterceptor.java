@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -137,6 +137,14 @@ public final class MappedInterceptor implements HandlerInterceptor {
 	}
 
 
+	/**
+	 * Whether this interceptor applies to all paths, i.e. has neither
+	 * include nor exclude patterns.
+	 */
+	boolean matchesAllPaths() {
+		return (ObjectUtils.isEmpty(this.includePatterns) && ObjectUtils.isEmpty(this.excludePatterns));
+	}
+
 	/**
 	 * Determine a match for the given lookup path.
 	 * @param lookupPath the current request path
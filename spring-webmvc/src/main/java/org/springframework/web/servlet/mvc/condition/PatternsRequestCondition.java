@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,21 +22,32 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>Patterns are matched as Strings through a {@link PathMatcher} against the
+ * lookup path from a {@link UrlPathHelper}, or, if created with a
+ * {@link PathPatternParser}, as parsed {@link PathPattern PathPatterns} against
+ * the {@link ServletRequestPathUtils#getParsedRequestPath parsed request path}.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -54,6 +65,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	private final Map<String, PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -97,6 +113,23 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Creates a new instance with the given URL patterns, parsed to
+	 * {@link PathPattern PathPatterns} through the given parser.
+	 * Each pattern that is not empty and does not start with "/" is prepended with "/".
+	 * <p>Suffix pattern matching is not supported with parsed patterns, and
+	 * matching irrespective of a trailing slash depends on the parser's
+	 * {@link PathPatternParser#setMatchOptionalTrailingSeparator
+	 * "matchOptionalTrailingSeparator"} setting.
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.2
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this(parse(prependLeadingSlash(Arrays.asList(patterns)), patternParser),
+				patternParser, new UrlPathHelper(), new AntPathMatcher());
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -118,6 +151,23 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.fileExtensions.add(fileExtension);
 			}
 		}
+		this.patternParser = null;
+		this.pathPatterns = Collections.emptyMap();
+	}
+
+	/**
+	 * Private constructor accepting parsed patterns, keyed by pattern String.
+	 */
+	private PatternsRequestCondition(Map<String, PathPattern> pathPatterns, PathPatternParser patternParser,
+			UrlPathHelper urlPathHelper, PathMatcher pathMatcher) {
+
+		this.patterns = Collections.unmodifiableSet(pathPatterns.keySet());
+		this.pathHelper = urlPathHelper;
+		this.pathMatcher = pathMatcher;
+		this.useSuffixPatternMatch = false;
+		this.useTrailingSlashMatch = false;
+		this.patternParser = patternParser;
+		this.pathPatterns = pathPatterns;
 	}
 
 
@@ -132,10 +182,29 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return result;
 	}
 
+	private static Map<String, PathPattern> parse(Collection<String> patterns, PathPatternParser patternParser) {
+		Map<String, PathPattern> result = new LinkedHashMap<>(patterns.size());
+		for (String pattern : patterns) {
+			result.put(pattern, patternParser.parse(pattern));
+		}
+		return result;
+	}
+
 	public Set<String> getPatterns() {
 		return this.patterns;
 	}
 
+	/**
+	 * Return the parsed patterns, in the same order as {@link #getPatterns()},
+	 * if this condition was created with a {@link PathPatternParser}.
+	 * @return the parsed patterns, or an empty collection if the patterns are
+	 * matched as Strings through a {@link PathMatcher}
+	 * @since 5.2
+	 */
+	public Collection<PathPattern> getPathPatterns() {
+		return this.pathPatterns.values();
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -158,6 +227,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public PatternsRequestCondition combine(PatternsRequestCondition other) {
+		if (this.patternParser != null) {
+			return combinePathPatterns(this.patternParser, other);
+		}
 		Set<String> result = new LinkedHashSet<>();
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
@@ -179,6 +251,30 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
 	}
 
+	private PatternsRequestCondition combinePathPatterns(PathPatternParser parser, PatternsRequestCondition other) {
+		Map<String, PathPattern> otherPatterns =
+				(other.patternParser != null ? other.pathPatterns : parse(other.patterns, parser));
+		Map<String, PathPattern> result = new LinkedHashMap<>();
+		if (!this.pathPatterns.isEmpty() && !otherPatterns.isEmpty()) {
+			for (PathPattern pattern1 : this.pathPatterns.values()) {
+				for (PathPattern pattern2 : otherPatterns.values()) {
+					PathPattern combined = pattern1.combine(pattern2);
+					result.put(combined.getPatternString(), combined);
+				}
+			}
+		}
+		else if (!this.pathPatterns.isEmpty()) {
+			result.putAll(this.pathPatterns);
+		}
+		else if (!otherPatterns.isEmpty()) {
+			result.putAll(otherPatterns);
+		}
+		else {
+			result.put("", parser.parse(""));
+		}
+		return new PatternsRequestCondition(result, parser, this.pathHelper, this.pathMatcher);
+	}
+
 	/**
 	 * Checks if any of the patterns match the given request and returns an instance
 	 * that is guaranteed to contain matching patterns, sorted via
@@ -190,6 +286,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * <li>Pattern match
 	 * <li>Pattern match with "/" appended if the pattern doesn't already end in "/"
 	 * </ul>
+	 * <p>Parsed {@link PathPattern PathPatterns} are matched against the path
+	 * within the application instead, and sorted by
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR specificity}.
 	 * @param request the current request
 	 * @return the same instance if the condition contains no patterns;
 	 * or a new condition with sorted matching patterns;
@@ -201,6 +300,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+			return getMatchingPathPatterns(path, this.patternParser);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
@@ -218,6 +321,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.patternParser != null) {
+			PatternsRequestCondition match =
+					getMatchingPathPatterns(PathContainer.parsePath(lookupPath), this.patternParser);
+			return (match != null ? new ArrayList<>(match.patterns) : Collections.emptyList());
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -231,6 +339,30 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	@Nullable
+	private PatternsRequestCondition getMatchingPathPatterns(PathContainer path, PathPatternParser parser) {
+		if (this.pathPatterns.size() == 1) {
+			return (this.pathPatterns.values().iterator().next().matches(path) ? this : null);
+		}
+		List<PathPattern> matches = new ArrayList<>(this.pathPatterns.size());
+		for (PathPattern pattern : this.pathPatterns.values()) {
+			if (pattern.matches(path)) {
+				matches.add(pattern);
+			}
+		}
+		if (matches.isEmpty()) {
+			return null;
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		Map<String, PathPattern> result = new LinkedHashMap<>(matches.size());
+		for (PathPattern match : matches) {
+			result.put(match.getPatternString(), match);
+		}
+		return new PatternsRequestCondition(result, parser, this.pathHelper, this.pathMatcher);
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -272,9 +404,14 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * {@link #getMatchingCondition(HttpServletRequest)} to ensure they
 	 * contain only patterns that match the request and are sorted with
 	 * the best matches on top.
+	 * <p>Parsed {@link PathPattern PathPatterns} are compared by
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR specificity} instead.
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.patternParser != null && other.patternParser != null) {
+			return comparePathPatterns(this.pathPatterns.values().iterator(), other.pathPatterns.values().iterator());
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
 		Iterator<String> iterator = this.patterns.iterator();
@@ -296,4 +433,22 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		}
 	}
 
+	private static int comparePathPatterns(Iterator<PathPattern> iterator, Iterator<PathPattern> iteratorOther) {
+		while (iterator.hasNext() && iteratorOther.hasNext()) {
+			int result = PathPattern.SPECIFICITY_COMPARATOR.compare(iterator.next(), iteratorOther.next());
+			if (result != 0) {
+				return result;
+			}
+		}
+		if (iterator.hasNext()) {
+			return -1;
+		}
+		else if (iteratorOther.hasNext()) {
+			return 1;
+		}
+		else {
+			return 0;
+		}
+	}
+
 }
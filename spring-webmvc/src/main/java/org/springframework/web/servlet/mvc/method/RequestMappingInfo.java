@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestConditionHolder;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Request mapping information. Encapsulates the following request mapping conditions:
@@ -493,10 +494,13 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		public RequestMappingInfo build() {
 			ContentNegotiationManager manager = this.options.getContentNegotiationManager();
 
-			PatternsRequestCondition patternsCondition = new PatternsRequestCondition(
-					this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
-					this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
-					this.options.getFileExtensions());
+			PathPatternParser patternParser = this.options.getPatternParser();
+			PatternsRequestCondition patternsCondition = (patternParser != null ?
+					new PatternsRequestCondition(this.paths, patternParser) :
+					new PatternsRequestCondition(
+							this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
+							this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
+							this.options.getFileExtensions()));
 
 			return new RequestMappingInfo(this.mappingName, patternsCondition,
 					new RequestMethodsRequestCondition(this.methods),
@@ -524,6 +528,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@Nullable
 		private PathMatcher pathMatcher;
 
+		@Nullable
+		private PathPatternParser patternParser;
+
 		private boolean trailingSlashMatch = true;
 
 		private boolean suffixPatternMatch = true;
@@ -566,6 +573,28 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			return this.pathMatcher;
 		}
 
+		/**
+		 * Set a PathPatternParser to parse the patterns of the
+		 * PatternsRequestCondition with, matching them as
+		 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}.
+		 * The UrlPathHelper, PathMatcher, trailing slash and suffix pattern
+		 * match options do not apply to the PatternsRequestCondition then.
+		 * <p>By default this is not set.
+		 * @since 5.2
+		 */
+		public void setPatternParser(@Nullable PathPatternParser patternParser) {
+			this.patternParser = patternParser;
+		}
+
+		/**
+		 * Return the PathPatternParser to use for the PatternsRequestCondition, if any.
+		 * @since 5.2
+		 */
+		@Nullable
+		public PathPatternParser getPatternParser() {
+			return this.patternParser;
+		}
+
 		/**
 		 * Set whether to apply trailing slash matching in PatternsRequestCondition.
 		 * <p>By default this is set to 'true'.
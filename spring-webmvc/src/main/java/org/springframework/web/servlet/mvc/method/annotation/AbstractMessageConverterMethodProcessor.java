@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -50,6 +51,8 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
@@ -104,6 +107,12 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<>();
 
+	private final Map<ConverterCacheKey, List<MediaType>> producibleMediaTypesCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	private final Map<ConverterCacheKey, HttpMessageConverter<?>> writeConverterCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	/**
 	 * Constructor with list of converters only.
@@ -271,34 +280,29 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 		if (selectedMediaType != null) {
 			selectedMediaType = selectedMediaType.removeQualityValue();
-			for (HttpMessageConverter<?> converter : this.messageConverters) {
-				GenericHttpMessageConverter genericConverter = (converter instanceof GenericHttpMessageConverter ?
-						(GenericHttpMessageConverter<?>) converter : null);
-				if (genericConverter != null ?
-						((GenericHttpMessageConverter) converter).canWrite(targetType, valueType, selectedMediaType) :
-						converter.canWrite(valueType, selectedMediaType)) {
-					body = getAdvice().beforeBodyWrite(body, returnType, selectedMediaType,
-							(Class<? extends HttpMessageConverter<?>>) converter.getClass(),
-							inputMessage, outputMessage);
-					if (body != null) {
-						Object theBody = body;
-						LogFormatUtils.traceDebug(logger, traceOn ->
-								"Writing [" + LogFormatUtils.formatValue(theBody, traceOn) + "]");
-						addContentDispositionHeader(inputMessage, outputMessage);
-						if (genericConverter != null) {
-							genericConverter.write(body, targetType, selectedMediaType, outputMessage);
-						}
-						else {
-							((HttpMessageConverter) converter).write(body, selectedMediaType, outputMessage);
-						}
+			HttpMessageConverter<?> converter = getWriteConverter(valueType, targetType, selectedMediaType);
+			if (converter != null) {
+				body = getAdvice().beforeBodyWrite(body, returnType, selectedMediaType,
+						(Class<? extends HttpMessageConverter<?>>) converter.getClass(),
+						inputMessage, outputMessage);
+				if (body != null) {
+					Object theBody = body;
+					LogFormatUtils.traceDebug(logger, traceOn ->
+							"Writing [" + LogFormatUtils.formatValue(theBody, traceOn) + "]");
+					addContentDispositionHeader(inputMessage, outputMessage);
+					if (converter instanceof GenericHttpMessageConverter) {
+						((GenericHttpMessageConverter) converter).write(body, targetType, selectedMediaType, outputMessage);
 					}
 					else {
-						if (logger.isDebugEnabled()) {
-							logger.debug("Nothing to write: null body");
-						}
+						((HttpMessageConverter) converter).write(body, selectedMediaType, outputMessage);
+					}
+				}
+				else {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Nothing to write: null body");
 					}
-					return;
 				}
+				return;
 			}
 		}
 
@@ -307,6 +311,65 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		}
 	}
 
+	/**
+	 * Find the first converter that can write the given value and target type
+	 * with the given media type, caching the result for subsequent responses.
+	 * <p>Media types with parameters other than "charset" and "q" are not
+	 * cached, since their parameter values typically come from the request.
+	 */
+	@Nullable
+	private HttpMessageConverter<?> getWriteConverter(Class<?> valueType, Type targetType, MediaType mediaType) {
+		MediaType keyMediaType = getCacheKeyMediaType(mediaType);
+		if (keyMediaType == null) {
+			return findWriteConverter(valueType, targetType, mediaType);
+		}
+		ConverterCacheKey cacheKey = new ConverterCacheKey(valueType, targetType, keyMediaType);
+		HttpMessageConverter<?> result = this.writeConverterCache.get(cacheKey);
+		if (result == null) {
+			result = findWriteConverter(valueType, targetType, mediaType);
+			if (result != null) {
+				this.writeConverterCache.put(cacheKey, result);
+			}
+		}
+		return result;
+	}
+
+	@Nullable
+	private HttpMessageConverter<?> findWriteConverter(Class<?> valueType, Type targetType, MediaType mediaType) {
+		for (HttpMessageConverter<?> converter : this.messageConverters) {
+			if (converter instanceof GenericHttpMessageConverter ?
+					((GenericHttpMessageConverter<?>) converter).canWrite(targetType, valueType, mediaType) :
+					converter.canWrite(valueType, mediaType)) {
+				return converter;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the given media type without its quality value, or {@code null}
+	 * if it has any parameter other than "charset" and "q".
+	 */
+	@Nullable
+	private static MediaType getCacheKeyMediaType(MediaType mediaType) {
+		Map<String, String> parameters = mediaType.getParameters();
+		if (parameters.isEmpty()) {
+			return mediaType;
+		}
+		String charset = null;
+		for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+			if (parameter.getKey().equalsIgnoreCase("charset")) {
+				charset = parameter.getValue();
+			}
+			else if (!parameter.getKey().equalsIgnoreCase("q")) {
+				return null;
+			}
+		}
+		return (charset != null ?
+				new MediaType(mediaType.getType(), mediaType.getSubtype(), Collections.singletonMap("charset", charset)) :
+				new MediaType(mediaType.getType(), mediaType.getSubtype()));
+	}
+
 	/**
 	 * Return the type of the value to be written to the response. Typically this is
 	 * a simple check via getClass on the value but if the value is null, then the
@@ -366,6 +429,11 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			return new ArrayList<>(mediaTypes);
 		}
 		else if (!this.allSupportedMediaTypes.isEmpty()) {
+			ConverterCacheKey cacheKey = new ConverterCacheKey(valueClass, targetType, null);
+			List<MediaType> cachedResult = this.producibleMediaTypesCache.get(cacheKey);
+			if (cachedResult != null) {
+				return new ArrayList<>(cachedResult);
+			}
 			List<MediaType> result = new ArrayList<>();
 			for (HttpMessageConverter<?> converter : this.messageConverters) {
 				if (converter instanceof GenericHttpMessageConverter && targetType != null) {
@@ -377,6 +445,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 					result.addAll(converter.getSupportedMediaTypes());
 				}
 			}
+			this.producibleMediaTypesCache.put(cacheKey, Collections.unmodifiableList(new ArrayList<>(result)));
 			return result;
 		}
 		else {
@@ -494,4 +563,46 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				mediaType.getSubtype().endsWith("+xml"));
 	}
 
+
+	/**
+	 * Key for the converter caches: the value class and target type to write,
+	 * along with the selected media type, if any.
+	 */
+	private static final class ConverterCacheKey {
+
+		private final Class<?> valueClass;
+
+		@Nullable
+		private final Type targetType;
+
+		@Nullable
+		private final MediaType mediaType;
+
+		ConverterCacheKey(Class<?> valueClass, @Nullable Type targetType, @Nullable MediaType mediaType) {
+			this.valueClass = valueClass;
+			this.targetType = targetType;
+			this.mediaType = mediaType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ConverterCacheKey)) {
+				return false;
+			}
+			ConverterCacheKey otherKey = (ConverterCacheKey) other;
+			return (this.valueClass == otherKey.valueClass &&
+					ObjectUtils.nullSafeEquals(this.targetType, otherKey.targetType) &&
+					ObjectUtils.nullSafeEquals(this.mediaType, otherKey.mediaType));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.valueClass.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.targetType)) * 31 +
+					ObjectUtils.nullSafeHashCode(this.mediaType);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,8 @@ import org.springframework.http.converter.support.AllEncompassingFormHttpMessage
 import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.ui.ModelMap;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.context.request.ServletWebRequest;
@@ -76,6 +78,8 @@ import org.springframework.web.servlet.support.RequestContextUtils;
 public class ExceptionHandlerExceptionResolver extends AbstractHandlerMethodExceptionResolver
 		implements ApplicationContextAware, InitializingBean {
 
+	private static final ExceptionHandlerTarget NO_EXCEPTION_HANDLER_TARGET = new ExceptionHandlerTarget(null, null);
+
 	@Nullable
 	private List<HandlerMethodArgumentResolver> customArgumentResolvers;
 
@@ -103,6 +107,9 @@ public class ExceptionHandlerExceptionResolver extends AbstractHandlerMethodExce
 	private final Map<ControllerAdviceBean, ExceptionHandlerMethodResolver> exceptionHandlerAdviceCache =
 			new LinkedHashMap<>();
 
+	private final Map<ExceptionHandlerCacheKey, ExceptionHandlerTarget> exceptionHandlerTargetCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	public ExceptionHandlerExceptionResolver() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -456,24 +463,41 @@ public class ExceptionHandlerExceptionResolver extends AbstractHandlerMethodExce
 			@Nullable HandlerMethod handlerMethod, Exception exception) {
 
 		Class<?> handlerType = null;
+		if (handlerMethod != null) {
+			handlerType = handlerMethod.getBeanType();
+			// For advice applicability check below (involving base packages, assignable types
+			// and annotation presence), use target class instead of interface-based proxy.
+			if (Proxy.isProxyClass(handlerType)) {
+				handlerType = AopUtils.getTargetClass(handlerMethod.getBean());
+			}
+		}
+
+		Throwable cause = exception.getCause();
+		ExceptionHandlerCacheKey cacheKey = new ExceptionHandlerCacheKey(
+				handlerType, exception.getClass(), (cause != null ? cause.getClass() : null));
+		ExceptionHandlerTarget target = this.exceptionHandlerTargetCache.get(cacheKey);
+		if (target == null) {
+			target = resolveExceptionHandlerTarget(handlerMethod, handlerType, exception);
+			this.exceptionHandlerTargetCache.put(cacheKey, target);
+		}
+		return target.createInvocableHandlerMethod(handlerMethod);
+	}
+
+	private ExceptionHandlerTarget resolveExceptionHandlerTarget(
+			@Nullable HandlerMethod handlerMethod, @Nullable Class<?> handlerType, Exception exception) {
 
 		if (handlerMethod != null) {
 			// Local exception handler methods on the controller class itself.
 			// To be invoked through the proxy, even in case of an interface-based proxy.
-			handlerType = handlerMethod.getBeanType();
-			ExceptionHandlerMethodResolver resolver = this.exceptionHandlerCache.get(handlerType);
+			Class<?> beanType = handlerMethod.getBeanType();
+			ExceptionHandlerMethodResolver resolver = this.exceptionHandlerCache.get(beanType);
 			if (resolver == null) {
-				resolver = new ExceptionHandlerMethodResolver(handlerType);
-				this.exceptionHandlerCache.put(handlerType, resolver);
+				resolver = new ExceptionHandlerMethodResolver(beanType);
+				this.exceptionHandlerCache.put(beanType, resolver);
 			}
 			Method method = resolver.resolveMethod(exception);
 			if (method != null) {
-				return new ServletInvocableHandlerMethod(handlerMethod.getBean(), method);
-			}
-			// For advice applicability check below (involving base packages, assignable types
-			// and annotation presence), use target class instead of interface-based proxy.
-			if (Proxy.isProxyClass(handlerType)) {
-				handlerType = AopUtils.getTargetClass(handlerMethod.getBean());
+				return new ExceptionHandlerTarget(null, new HandlerMethod(handlerMethod.getBean(), method));
 			}
 		}
 
@@ -483,12 +507,91 @@ public class ExceptionHandlerExceptionResolver extends AbstractHandlerMethodExce
 				ExceptionHandlerMethodResolver resolver = entry.getValue();
 				Method method = resolver.resolveMethod(exception);
 				if (method != null) {
-					return new ServletInvocableHandlerMethod(advice.resolveBean(), method);
+					return new ExceptionHandlerTarget(advice, new HandlerMethod(advice.resolveBean(), method));
 				}
 			}
 		}
 
-		return null;
+		return NO_EXCEPTION_HANDLER_TARGET;
+	}
+
+
+	/**
+	 * Key for the resolved exception handler of a given handler type,
+	 * exception type and cause type.
+	 */
+	private static final class ExceptionHandlerCacheKey {
+
+		@Nullable
+		private final Class<?> handlerType;
+
+		private final Class<?> exceptionType;
+
+		@Nullable
+		private final Class<?> causeType;
+
+		public ExceptionHandlerCacheKey(@Nullable Class<?> handlerType, Class<?> exceptionType,
+				@Nullable Class<?> causeType) {
+
+			this.handlerType = handlerType;
+			this.exceptionType = exceptionType;
+			this.causeType = causeType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ExceptionHandlerCacheKey)) {
+				return false;
+			}
+			ExceptionHandlerCacheKey otherKey = (ExceptionHandlerCacheKey) other;
+			return (this.handlerType == otherKey.handlerType && this.exceptionType == otherKey.exceptionType &&
+					this.causeType == otherKey.causeType);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = ObjectUtils.nullSafeHashCode(this.handlerType);
+			hashCode = 29 * hashCode + this.exceptionType.hashCode();
+			hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.causeType);
+			return hashCode;
+		}
+	}
+
+
+	/**
+	 * A resolved exception handler: a pre-initialized {@link HandlerMethod},
+	 * plus the advice bean it was found on, if any.
+	 */
+	private static final class ExceptionHandlerTarget {
+
+		@Nullable
+		private final ControllerAdviceBean adviceBean;
+
+		@Nullable
+		private final HandlerMethod handlerMethod;
+
+		public ExceptionHandlerTarget(@Nullable ControllerAdviceBean adviceBean, @Nullable HandlerMethod handlerMethod) {
+			this.adviceBean = adviceBean;
+			this.handlerMethod = handlerMethod;
+		}
+
+		@Nullable
+		public ServletInvocableHandlerMethod createInvocableHandlerMethod(@Nullable HandlerMethod raisingMethod) {
+			if (this.handlerMethod == null) {
+				return null;
+			}
+			Object bean = (this.adviceBean != null ? this.adviceBean.resolveBean() :
+					(raisingMethod != null ? raisingMethod.getBean() : this.handlerMethod.getBean()));
+			if (bean == this.handlerMethod.getBean()) {
+				// Shares the pre-initialized method parameters
+				return new ServletInvocableHandlerMethod(this.handlerMethod);
+			}
+			// Prototype or scoped bean: bind the method to the current instance
+			return new ServletInvocableHandlerMethod(bean, this.handlerMethod.getMethod());
+		}
 	}
 
 }
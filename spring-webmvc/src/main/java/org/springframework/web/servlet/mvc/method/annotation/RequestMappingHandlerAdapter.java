@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -51,6 +52,7 @@ import org.springframework.ui.ModelMap;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.annotation.CacheResponse;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -68,6 +70,7 @@ import org.springframework.web.context.request.async.DeferredResultProcessingInt
 import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.ResponseCachingFilter;
 import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ErrorsMethodArgumentResolver;
@@ -191,6 +194,12 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<Class<?>, WebDataBinderFactory> sharedDataBinderFactoryCache = new ConcurrentHashMap<>(64);
+
+	private final Map<Class<?>, ModelFactory> sharedModelFactoryCache = new ConcurrentHashMap<>(64);
+
+	private final Map<MethodClassKey, Boolean> cacheResponseCache = new ConcurrentHashMap<>(64);
+
 
 	public RequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -580,6 +589,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			return;
 		}
 
+		this.sharedDataBinderFactoryCache.clear();
+		this.sharedModelFactoryCache.clear();
+
 		List<ControllerAdviceBean> adviceBeans = ControllerAdviceBean.findAnnotatedBeans(getApplicationContext());
 		AnnotationAwareOrderComparator.sort(adviceBeans);
 
@@ -780,6 +792,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 		ModelAndView mav;
 		checkRequest(request);
+		if (isCacheResponse(handlerMethod)) {
+			ResponseCachingFilter.cacheResponse(request);
+		}
 
 		// Execute invokeHandlerMethod in synchronized block if required.
 		if (this.synchronizeOnSession) {
@@ -823,6 +838,17 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	}
 
 
+	/**
+	 * Whether the given handler method, or its handler type, is annotated with
+	 * {@link CacheResponse @CacheResponse}.
+	 */
+	private boolean isCacheResponse(HandlerMethod handlerMethod) {
+		MethodClassKey cacheKey = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+		return this.cacheResponseCache.computeIfAbsent(cacheKey, key ->
+				(handlerMethod.hasMethodAnnotation(CacheResponse.class) ||
+						AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), CacheResponse.class)));
+	}
+
 	/**
 	 * Return the {@link SessionAttributesHandler} instance for the given handler type
 	 * (never {@code null}).
@@ -915,8 +941,12 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	}
 
 	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
 		Class<?> handlerType = handlerMethod.getBeanType();
+		ModelFactory modelFactory = this.sharedModelFactoryCache.get(handlerType);
+		if (modelFactory != null) {
+			return modelFactory;
+		}
+		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
 		Set<Method> methods = this.modelAttributeCache.get(handlerType);
 		if (methods == null) {
 			methods = MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
@@ -936,7 +966,12 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			Object bean = handlerMethod.getBean();
 			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 		}
-		return new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		modelFactory = new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		if (attrMethods.isEmpty() && binderFactory == this.sharedDataBinderFactoryCache.get(handlerType)) {
+			// Not bound to a handler instance: reuse for subsequent requests
+			this.sharedModelFactoryCache.put(handlerType, modelFactory);
+		}
+		return modelFactory;
 	}
 
 	private InvocableHandlerMethod createModelAttributeMethod(WebDataBinderFactory factory, Object bean, Method method) {
@@ -951,6 +986,10 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
 		Class<?> handlerType = handlerMethod.getBeanType();
+		WebDataBinderFactory binderFactory = this.sharedDataBinderFactoryCache.get(handlerType);
+		if (binderFactory != null) {
+			return binderFactory;
+		}
 		Set<Method> methods = this.initBinderCache.get(handlerType);
 		if (methods == null) {
 			methods = MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS);
@@ -970,7 +1009,12 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			Object bean = handlerMethod.getBean();
 			initBinderMethods.add(createInitBinderMethod(bean, method));
 		}
-		return createDataBinderFactory(initBinderMethods);
+		binderFactory = createDataBinderFactory(initBinderMethods);
+		if (initBinderMethods.isEmpty()) {
+			// Not bound to a handler instance: reuse for subsequent requests
+			this.sharedDataBinderFactoryCache.put(handlerType, binderFactory);
+		}
+		return binderFactory;
 	}
 
 	private InvocableHandlerMethod createInitBinderMethod(Object bean, Method method) {
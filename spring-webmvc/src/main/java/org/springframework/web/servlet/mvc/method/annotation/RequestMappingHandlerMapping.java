@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,8 +30,10 @@ import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.PathMatcher;
 import org.springframework.util.StringValueResolver;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -75,6 +77,8 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 
 	private RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
 
+	private boolean pathPrefixIndexApplicable = false;
+
 
 	/**
 	 * Whether to use suffix pattern match (".*") when matching patterns to
@@ -156,14 +160,26 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 		this.config = new RequestMappingInfo.BuilderConfiguration();
 		this.config.setUrlPathHelper(getUrlPathHelper());
 		this.config.setPathMatcher(getPathMatcher());
+		this.config.setPatternParser(getPatternParser());
 		this.config.setSuffixPatternMatch(this.useSuffixPatternMatch);
 		this.config.setTrailingSlashMatch(this.useTrailingSlashMatch);
 		this.config.setRegisteredSuffixPatternMatch(this.useRegisteredSuffixPatternMatch);
 		this.config.setContentNegotiationManager(getContentNegotiationManager());
+		this.pathPrefixIndexApplicable = (!usesPathPatterns() && matchesLiteralSegmentsExactly(getPathMatcher()));
 
 		super.afterPropertiesSet();
 	}
 
+	/**
+	 * Check whether the given PathMatcher is an {@link AntPathMatcher} with
+	 * "/" as separator, matching literal path segments case-sensitively and
+	 * without trimming them.
+	 */
+	private static boolean matchesLiteralSegmentsExactly(PathMatcher pathMatcher) {
+		return (pathMatcher instanceof AntPathMatcher && !pathMatcher.match("/a/*", "/a/b/c") &&
+				!pathMatcher.match("/a/b", "/A/b") && !pathMatcher.match("/a/b", "/ a/b"));
+	}
+
 
 	/**
 	 * Whether to use suffix pattern matching.
@@ -195,6 +211,20 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 	}
 
 
+	/**
+	 * {@inheritDoc}
+	 * <p>Returns {@code true} if the configured {@link #setPathMatcher PathMatcher}
+	 * is an {@link AntPathMatcher} matching literal path segments exactly, as is
+	 * the case by default, and no {@link #setPatternParser PathPatternParser}
+	 * is used. Note that mappings {@link #registerMapping registered}
+	 * programmatically are expected to be built with the same options then.
+	 * @since 5.2
+	 */
+	@Override
+	protected boolean isPathPrefixIndexApplicable() {
+		return this.pathPrefixIndexApplicable;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>Expects a handler to have either a type-level @{@link Controller}
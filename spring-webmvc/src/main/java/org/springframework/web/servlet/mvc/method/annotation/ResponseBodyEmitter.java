@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -183,6 +183,22 @@ public class ResponseBodyEmitter {
 		sendInternal(object, mediaType);
 	}
 
+	/**
+	 * Write a set of data and MediaType pairs in a batch, flushing the
+	 * response only once at the end rather than after each item.
+	 * <p>This is useful for producers emitting many small items at a high
+	 * rate, which can coalesce the items ready at a given point in time.
+	 * @param items the data and MediaType pairs to write
+	 * @throws IOException raised when an I/O error occurs
+	 * @throws java.lang.IllegalStateException wraps any other errors
+	 * @since 5.2
+	 * @see #send(Object, MediaType)
+	 */
+	public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+		Assert.state(!this.complete, "ResponseBodyEmitter is already set complete");
+		sendInternal(items);
+	}
+
 	private void sendInternal(Object object, @Nullable MediaType mediaType) throws IOException {
 		if (this.handler != null) {
 			try {
@@ -202,6 +218,28 @@ public class ResponseBodyEmitter {
 		}
 	}
 
+	private void sendInternal(Set<DataWithMediaType> items) throws IOException {
+		if (items.isEmpty()) {
+			return;
+		}
+		if (this.handler != null) {
+			try {
+				this.handler.send(items);
+			}
+			catch (IOException ex) {
+				this.sendFailed = true;
+				throw ex;
+			}
+			catch (Throwable ex) {
+				this.sendFailed = true;
+				throw new IllegalStateException("Failed to send " + items, ex);
+			}
+		}
+		else {
+			this.earlySendAttempts.addAll(items);
+		}
+	}
+
 	/**
 	 * Complete request processing by performing a dispatch into the servlet
 	 * container, where Spring MVC is invoked once more, and completes the
@@ -286,6 +324,12 @@ public class ResponseBodyEmitter {
 
 		void send(Object data, @Nullable MediaType mediaType) throws IOException;
 
+		default void send(Set<DataWithMediaType> items) throws IOException {
+			for (DataWithMediaType item : items) {
+				send(item.getData(), item.getMediaType());
+			}
+		}
+
 		void complete();
 
 		void completeWithError(Throwable failure);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -127,12 +127,7 @@ public class SseEmitter extends ResponseBodyEmitter {
 	 * @throws IOException raised when an I/O error occurs
 	 */
 	public void send(SseEventBuilder builder) throws IOException {
-		Set<DataWithMediaType> dataToSend = builder.build();
-		synchronized (this) {
-			for (DataWithMediaType entry : dataToSend) {
-				super.send(entry.getData(), entry.getMediaType());
-			}
-		}
+		super.send(builder.build());
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,10 +26,13 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -36,6 +40,9 @@ import org.springframework.util.StringUtils;
  * resolves resources from a {@link org.springframework.cache.Cache} or otherwise
  * delegates to the resolver chain and saves the result in the cache.
  *
+ * <p>Optionally, the content of small resources can be cached in memory as
+ * well, see {@link #setContentCacheLimit}.
+ *
  * @author Rossen Stoyanchev
  * @author Brian Clozel
  * @since 4.1
@@ -57,6 +64,8 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 
 	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
 
+	private int contentCacheLimit = 0;
+
 
 	public CachingResourceResolver(Cache cache) {
 		Assert.notNull(cache, "Cache is required");
@@ -103,6 +112,28 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return Collections.unmodifiableList(this.contentCodings);
 	}
 
+	/**
+	 * Set the maximum content length of resources whose content should be
+	 * cached in memory along with the resolved resource. Such resources are
+	 * served from the cached bytes, with a pre-computed ETag and Last-Modified
+	 * value, without accessing the underlying resource again; this is therefore
+	 * only appropriate for resources that do not change at runtime.
+	 * <p>By default this is set to 0, i.e. resource content is not cached.
+	 * @param contentCacheLimit the maximum content length in bytes
+	 * @since 5.2
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum content length of resources whose content is cached.
+	 * @since 5.2
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
 
 	@Override
 	protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
@@ -120,12 +151,31 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 
 		resource = chain.resolveResource(request, requestPath, locations);
 		if (resource != null) {
+			resource = cacheContent(resource);
 			this.cache.put(key, resource);
 		}
 
 		return resource;
 	}
 
+	private Resource cacheContent(Resource resource) {
+		if (this.contentCacheLimit <= 0 || resource instanceof CachedContentResource) {
+			return resource;
+		}
+		try {
+			if (resource.isReadable() && resource.contentLength() <= this.contentCacheLimit) {
+				byte[] content = FileCopyUtils.copyToByteArray(resource.getInputStream());
+				return new CachedContentResource(resource, content);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to cache content of " + resource + ": " + ex.getMessage());
+			}
+		}
+		return resource;
+	}
+
 	protected String computeKey(@Nullable HttpServletRequest request, String requestPath) {
 		StringBuilder key = new StringBuilder(RESOLVED_RESOURCE_CACHE_KEY_PREFIX);
 		key.append(requestPath);
@@ -176,4 +226,49 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return resolvedUrlPath;
 	}
 
+
+	/**
+	 * A resource with its content cached in memory, exposing the response
+	 * headers of the original resource plus a pre-computed ETag.
+	 */
+	static final class CachedContentResource extends ByteArrayResource implements HttpResource {
+
+		@Nullable
+		private final String filename;
+
+		private final long lastModified;
+
+		private final HttpHeaders responseHeaders = new HttpHeaders();
+
+		CachedContentResource(Resource original, byte[] content) throws IOException {
+			super(content, original.getDescription());
+			this.filename = original.getFilename();
+			this.lastModified = original.lastModified();
+			if (original instanceof HttpResource) {
+				this.responseHeaders.putAll(((HttpResource) original).getResponseHeaders());
+			}
+			if (this.responseHeaders.getETag() == null) {
+				this.responseHeaders.setETag("\"" + DigestUtils.md5DigestAsHex(content) + "\"");
+			}
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.filename;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			headers.putAll(this.responseHeaders);
+			return headers;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -438,7 +438,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 	 * If the resource exists, the request will be checked for the presence of the
 	 * {@code Last-Modified} header, and its value will be compared against the last-modified
 	 * timestamp of the given resource, returning a {@code 304} status code if the
-	 * {@code Last-Modified} value  is greater. If the resource is newer than the
+	 * {@code Last-Modified} value  is greater. Likewise, an {@code If-None-Match} header
+	 * is checked against the ETag of an {@link HttpResource}, if any. If the resource is newer than the
 	 * {@code Last-Modified} value, or the header is not present, the content resource
 	 * of the resource will be written to the response with caching headers
 	 * set to expire one year in the future.
@@ -464,7 +465,9 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		checkRequest(request);
 
 		// Header phase
-		if (new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
+		String eTag = (resource instanceof HttpResource ?
+				((HttpResource) resource).getResponseHeaders().getETag() : null);
+		if (new ServletWebRequest(request, response).checkNotModified(eTag, resource.lastModified())) {
 			logger.trace("Resource not modified");
 			return;
 		}
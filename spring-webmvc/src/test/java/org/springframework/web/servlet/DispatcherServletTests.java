@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,9 @@
 package org.springframework.web.servlet;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import javax.servlet.Servlet;
 import javax.servlet.ServletConfig;
@@ -152,6 +155,39 @@ public class DispatcherServletTests {
 		assertEquals(0, listener.counter);
 	}
 
+	@Test
+	public void requestHandledListener() throws Exception {
+		List<Integer> statusCodes = new ArrayList<>();
+		complexDispatcherServlet.setPublishEvents(false);
+		complexDispatcherServlet.setRequestHandledListener((request, response, processingTime, failureCause) -> {
+			assertNull(failureCause);
+			statusCodes.add(response.getStatus());
+		});
+		MockHttpServletRequest request = new MockHttpServletRequest(getServletContext(), "GET", "/locale.do");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		complexDispatcherServlet.service(request, response);
+		assertEquals(Collections.singletonList(200), statusCodes);
+		ComplexWebApplicationContext.TestApplicationListener listener =
+				(ComplexWebApplicationContext.TestApplicationListener) complexDispatcherServlet
+						.getWebApplicationContext().getBean("testListener");
+		assertEquals(0, listener.counter);
+	}
+
+	@Test
+	public void requestHandledListenerFailureIgnored() throws Exception {
+		complexDispatcherServlet.setRequestHandledListener((request, response, processingTime, failureCause) -> {
+			throw new IllegalStateException("listener failure");
+		});
+		MockHttpServletRequest request = new MockHttpServletRequest(getServletContext(), "GET", "/locale.do");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		complexDispatcherServlet.service(request, response);
+		assertEquals(200, response.getStatus());
+		ComplexWebApplicationContext.TestApplicationListener listener =
+				(ComplexWebApplicationContext.TestApplicationListener) complexDispatcherServlet
+						.getWebApplicationContext().getBean("testListener");
+		assertEquals(1, listener.counter);
+	}
+
 	@Test
 	public void parameterizableViewController() throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest(getServletContext(), "GET", "/view.do");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -70,6 +70,45 @@ public class HandlerMappingTests {
 				mappedInterceptor1.getInterceptor(), i2, mappedInterceptor3.getInterceptor(), i4));
 	}
 
+	@Test
+	public void mappedInterceptorsPerLookupPath() throws Exception {
+		HandlerInterceptor i1 = Mockito.mock(HandlerInterceptor.class);
+		HandlerInterceptor i2 = Mockito.mock(HandlerInterceptor.class);
+		MappedInterceptor mappedInterceptor2 = new MappedInterceptor(new String[] {"/foo/**"}, i2);
+		HandlerInterceptor i3 = Mockito.mock(HandlerInterceptor.class);
+		MappedInterceptor mappedInterceptor3 =
+				new MappedInterceptor(new String[] {"/**"}, new String[] {"/foo/bar"}, i3);
+
+		this.handlerMapping.setInterceptors(i1, mappedInterceptor2, mappedInterceptor3);
+		this.handlerMapping.setApplicationContext(this.context);
+
+		for (int i = 0; i < 2; i++) {
+			Assert.assertThat(getInterceptors("/foo/baz"), Matchers.arrayContaining(i1, i2, i3));
+			Assert.assertThat(getInterceptors("/foo/bar"), Matchers.arrayContaining(i1, i2));
+			Assert.assertThat(getInterceptors("/bar"), Matchers.arrayContaining(i1, i3));
+		}
+	}
+
+	@Test
+	public void interceptorsAddedToChainNotShared() throws Exception {
+		HandlerInterceptor i1 = Mockito.mock(HandlerInterceptor.class);
+		HandlerInterceptor i2 = Mockito.mock(HandlerInterceptor.class);
+
+		this.handlerMapping.setInterceptors(i1);
+		this.handlerMapping.setApplicationContext(this.context);
+
+		HandlerExecutionChain chain = this.handlerMapping.getHandlerExecutionChain(new SimpleHandler(), this.request);
+		chain.addInterceptor(i2);
+		Assert.assertThat(chain.getInterceptors(), Matchers.arrayContaining(i1, i2));
+		chain = this.handlerMapping.getHandlerExecutionChain(new SimpleHandler(), this.request);
+		Assert.assertThat(chain.getInterceptors(), Matchers.arrayContaining(i1));
+	}
+
+	private HandlerInterceptor[] getInterceptors(String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		return this.handlerMapping.getHandlerExecutionChain(new SimpleHandler(), request).getInterceptors();
+	}
+
 	class TestHandlerMapping extends AbstractHandlerMapping {
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,10 @@
 package org.springframework.web.servlet.handler;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -102,6 +104,39 @@ public class HandlerMethodMappingTests {
 		this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo"));
 	}
 
+	@Test
+	public void patternMatchWithPathPrefixIndex() throws Exception {
+		this.mapping = new PathPrefixIndexHandlerMethodMapping();
+		this.mapping.registerMapping("/api/users/{id}", this.handler, this.method1);
+		this.mapping.registerMapping("/api/orders/*", this.handler, this.method2);
+
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1"));
+		assertEquals(method1, result.getMethod());
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/orders/1"));
+		assertEquals(method2, result.getMethod());
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/items/1")));
+
+		this.mapping.unregisterMapping("/api/users/{id}");
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1")));
+	}
+
+	@Test
+	public void pathPrefixIndexNarrowsDownCheckedMappings() throws Exception {
+		PathPrefixIndexHandlerMethodMapping mapping = new PathPrefixIndexHandlerMethodMapping();
+		mapping.registerMapping("/api/users/{id}", this.handler, this.method1);
+		mapping.registerMapping("/api/orders/*", this.handler, this.method2);
+
+		HandlerMethod result = mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1"));
+		assertEquals(method1, result.getMethod());
+		assertEquals(Collections.singleton("/api/users/{id}"), mapping.checkedMappings);
+
+		mapping.checkedMappings.clear();
+		mapping.pathPrefixIndexApplicable = false;
+		result = mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1"));
+		assertEquals(method1, result.getMethod());
+		assertEquals(new HashSet<>(Arrays.asList("/api/users/{id}", "/api/orders/*")), mapping.checkedMappings);
+	}
+
 	@Test
 	public void detectHandlerMethodsInAncestorContexts() {
 		StaticApplicationContext cxt = new StaticApplicationContext();
@@ -290,6 +325,29 @@ public class HandlerMethodMappingTests {
 
 	}
 
+	private static class PathPrefixIndexHandlerMethodMapping extends MyHandlerMethodMapping {
+
+		private final Set<String> checkedMappings = new HashSet<>();
+
+		private boolean pathPrefixIndexApplicable = true;
+
+		@Override
+		protected Set<String> getMappingPathPatterns(String key) {
+			return Collections.singleton(key);
+		}
+
+		@Override
+		protected boolean isPathPrefixIndexApplicable() {
+			return this.pathPrefixIndexApplicable;
+		}
+
+		@Override
+		protected String getMatchingMapping(String pattern, HttpServletRequest request) {
+			this.checkedMappings.add(pattern);
+			return super.getMatchingMapping(pattern, request);
+		}
+	}
+
 	private static class SimpleMappingNamingStrategy implements HandlerMethodMappingNamingStrategy<String> {
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -212,4 +213,48 @@ public class PatternsRequestConditionTests {
 		assertEquals(1, match1.compareTo(match2, request));
 	}
 
+	@Test
+	public void matchPathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo/**", "/foo/{id}"}, parser);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals(Arrays.asList("/foo/{id}", "/foo/**"), Arrays.asList(match.getPatterns().toArray()));
+		assertEquals(2, match.getPathPatterns().size());
+		assertNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/bar")));
+	}
+
+	@Test
+	public void matchPathPatternsWithTrailingSlash() {
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo"}, new PathPatternParser());
+
+		assertNotNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/")));
+		assertNull("Suffix pattern match not supported",
+				condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo.html")));
+	}
+
+	@Test
+	public void combinePathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/type1", "/type2"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/method1", "/method2"}, parser);
+		PatternsRequestCondition combined = c1.combine(c2);
+
+		assertEquals(Arrays.asList("/type1/method1", "/type1/method2", "/type2/method1", "/type2/method2"),
+				Arrays.asList(combined.getPatterns().toArray()));
+		assertNotNull(combined.getMatchingCondition(new MockHttpServletRequest("GET", "/type2/method1")));
+	}
+
+	@Test
+	public void comparePathPatternSpecificity() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/fo*"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+
+		assertTrue(c1.compareTo(c2, new MockHttpServletRequest("GET", "/foo")) > 0);
+	}
+
 }
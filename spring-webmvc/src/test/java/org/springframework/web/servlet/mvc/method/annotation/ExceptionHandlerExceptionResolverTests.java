@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -162,6 +162,23 @@ public class ExceptionHandlerExceptionResolverTests {
 		assertEquals("Bad argument", mav.getModel().get("detail"));
 	}
 
+	@Test
+	public void resolveExceptionWithCachedHandlerForEachControllerInstance() throws NoSuchMethodException {
+		this.resolver.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = new HandlerMethod(new NamedController("first"), "handle");
+		ModelAndView mav = this.resolver.resolveException(this.request, this.response, handlerMethod,
+				new IllegalArgumentException());
+		assertNotNull(mav);
+		assertEquals("first", mav.getModel().get("name"));
+
+		handlerMethod = new HandlerMethod(new NamedController("second"), "handle");
+		mav = this.resolver.resolveException(this.request, this.response, handlerMethod,
+				new IllegalArgumentException());
+		assertNotNull(mav);
+		assertEquals("second", mav.getModel().get("name"));
+	}
+
 	@Test
 	public void resolveExceptionResponseBody() throws UnsupportedEncodingException, NoSuchMethodException {
 		IllegalArgumentException ex = new IllegalArgumentException();
@@ -352,6 +369,24 @@ public class ExceptionHandlerExceptionResolverTests {
 	}
 
 
+	@Controller
+	static class NamedController {
+
+		private final String name;
+
+		public NamedController(String name) {
+			this.name = name;
+		}
+
+		public void handle() {}
+
+		@ExceptionHandler
+		public ModelAndView handle(Exception ex) {
+			return new ModelAndView("errorView", "name", this.name);
+		}
+	}
+
+
 	@Controller
 	static class ResponseWriterController {
 
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.io.IOException;
+import java.io.Writer;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.MatrixVariable;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for annotated controllers mapped with parsed
+ * {@link org.springframework.web.util.pattern.PathPattern PathPatterns},
+ * going through the DispatcherServlet.
+ */
+public class PathPatternServletAnnotationControllerHandlerMethodTests extends AbstractServletHandlerMethodTests {
+
+	@Before
+	public void setup() throws ServletException {
+		initServlet(wac -> wac.getBeanDefinition("handlerMapping").getPropertyValues()
+				.add("patternParser", new PathPatternParser()), PathPatternController.class);
+	}
+
+
+	@Test
+	public void uriVariables() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels/42;q=7/bookings/a%20b");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		getServlet().service(request, response);
+
+		assertEquals("42-a b-7", response.getContentAsString());
+		assertEquals("/hotels/{hotel}/bookings/{booking}",
+				request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+	}
+
+	@Test
+	public void pathWithinHandlerMappingIsEncoded() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a%20b;v=1/c.txt");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		getServlet().service(request, response);
+
+		assertEquals("/files/a%20b/c.txt", response.getContentAsString());
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+	}
+
+	@Test
+	public void parsedPathRestoredAfterInclude() throws Exception {
+		RequestPath outerPath = RequestPath.parse("/outer", "");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/outer");
+		request.setAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE, outerPath);
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/files/included.txt");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		getServlet().service(request, response);
+
+		assertEquals("/files/included.txt", response.getContentAsString());
+		assertSame(outerPath, request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+	}
+
+	@Test
+	public void parsedPathRestoredAfterForward() throws Exception {
+		RequestPath outerPath = RequestPath.parse("/outer", "");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/forwarded.txt");
+		request.setAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE, outerPath);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		getServlet().service(request, response);
+
+		assertEquals("/files/forwarded.txt", response.getContentAsString());
+		assertSame(outerPath, request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE));
+	}
+
+
+	@Controller
+	static class PathPatternController {
+
+		@RequestMapping("/hotels/{hotel}/bookings/{booking}")
+		public void booking(@PathVariable String hotel, @PathVariable String booking,
+				@MatrixVariable(name = "q", pathVar = "hotel") String q, Writer writer) throws IOException {
+
+			writer.write(hotel + "-" + booking + "-" + q);
+		}
+
+		@RequestMapping("/files/**")
+		public void file(HttpServletRequest request, Writer writer) throws IOException {
+			writer.write((String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+		}
+	}
+
+}
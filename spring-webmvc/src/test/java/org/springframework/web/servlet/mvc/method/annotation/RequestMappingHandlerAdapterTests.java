@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,11 +41,14 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.CacheResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.filter.ResponseCachingFilter;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.InitBinderDataBinderFactory;
 import org.springframework.web.method.annotation.ModelMethodProcessor;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
@@ -232,6 +235,29 @@ public class RequestMappingHandlerAdapterTests {
 		assertEquals(null,mav.getModel().get("attr3"));
 	}
 
+	@Test
+	public void dataBinderFactoryReusedWithoutInitBinderMethods() throws Exception {
+		List<List<InvocableHandlerMethod>> createdFactories = new ArrayList<>();
+		RequestMappingHandlerAdapter adapter = new RequestMappingHandlerAdapter() {
+			@Override
+			protected InitBinderDataBinderFactory createDataBinderFactory(List<InvocableHandlerMethod> methods)
+					throws Exception {
+				createdFactories.add(methods);
+				return super.createDataBinderFactory(methods);
+			}
+		};
+		adapter.setApplicationContext(this.webAppContext);
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+		ModelAndView mav = adapter.handle(this.request, this.response, handlerMethod);
+		assertEquals("lAttr1", mav.getModel().get("attr1"));
+		mav = adapter.handle(this.request, this.response, handlerMethod);
+		assertEquals("lAttr1", mav.getModel().get("attr1"));
+
+		assertEquals(1, createdFactories.size());
+	}
+
 	// SPR-10859
 
 	@Test
@@ -254,6 +280,37 @@ public class RequestMappingHandlerAdapterTests {
 		assertEquals("{\"status\":400,\"message\":\"body\"}", this.response.getContentAsString());
 	}
 
+	@Test
+	public void cacheResponseOnMethod() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+
+		this.handlerAdapter.handle(this.request, this.response, handlerMethod(new CachedMethodController(), "handle"));
+		assertTrue(isCacheResponse(this.request));
+
+		MockHttpServletRequest otherRequest = new MockHttpServletRequest("GET", "/");
+		this.handlerAdapter.handle(otherRequest, this.response, handlerMethod(new SimpleController(), "handle"));
+		assertFalse(isCacheResponse(otherRequest));
+	}
+
+	@Test
+	public void cacheResponseOnTypeWithInheritedMethod() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+		Method method = BaseController.class.getDeclaredMethod("handle");
+
+		this.handlerAdapter.handle(this.request, this.response,
+				new InvocableHandlerMethod(new CachedTypeController(), method));
+		assertTrue(isCacheResponse(this.request));
+
+		MockHttpServletRequest otherRequest = new MockHttpServletRequest("GET", "/");
+		this.handlerAdapter.handle(otherRequest, this.response,
+				new InvocableHandlerMethod(new UncachedTypeController(), method));
+		assertFalse("Same method on a type without @CacheResponse", isCacheResponse(otherRequest));
+	}
+
+	private boolean isCacheResponse(MockHttpServletRequest request) {
+		return (request.getAttribute(ResponseCachingFilter.class.getName() + ".CACHEABLE") != null);
+	}
+
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
 		return new InvocableHandlerMethod(handler, method);
@@ -290,6 +347,34 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class CachedMethodController {
+
+		@CacheResponse
+		public String handle() {
+			return null;
+		}
+	}
+
+
+	@SuppressWarnings("unused")
+	private static class BaseController {
+
+		public String handle() {
+			return null;
+		}
+	}
+
+
+	@CacheResponse
+	private static class CachedTypeController extends BaseController {
+	}
+
+
+	private static class UncachedTypeController extends BaseController {
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
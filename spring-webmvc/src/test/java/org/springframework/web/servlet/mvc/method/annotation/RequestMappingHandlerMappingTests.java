@@ -33,6 +33,7 @@ import org.junit.Test;
 
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
@@ -45,7 +46,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 
 import static org.junit.Assert.*;
@@ -153,6 +156,22 @@ public class RequestMappingHandlerMappingTests {
 		assertEquals(Collections.singleton("/api/user/{id}"), info.getPatternsCondition().getPatterns());
 	}
 
+	@Test
+	public void trailingSlashAndSuffixMatchWithPathPrefixIndex() throws Exception {
+		this.wac.registerSingleton("orderController", OrderController.class);
+		this.wac.refresh();
+		this.handlerMapping.afterPropertiesSet();
+		assertTrue(this.handlerMapping.isPathPrefixIndexApplicable());
+
+		assertHandlerMethod("/api/orders/list/", "list");
+		assertHandlerMethod("/api/orders/list.json", "list");
+		assertHandlerMethod("/api/orders/42/", "getOrder");
+		assertHandlerMethod("/api/orders/42.json", "getOrder");
+		assertHandlerMethod("/api/orders/42/items/", "getItems");
+		assertHandlerMethod("/api/orders/42/items.json", "getItems");
+		assertNull(this.handlerMapping.getHandler(new MockHttpServletRequest("GET", "/api/customers/list/")));
+	}
+
 	@Test
 	public void resolveRequestMappingViaComposedAnnotation() throws Exception {
 		RequestMappingInfo info = assertComposedAnnotationMapping("postJson", "/postJson", RequestMethod.POST);
@@ -196,6 +215,12 @@ public class RequestMappingHandlerMappingTests {
 		assertComposedAnnotationMapping(RequestMethod.PATCH);
 	}
 
+	private void assertHandlerMethod(String requestUri, String methodName) throws Exception {
+		HandlerExecutionChain chain = this.handlerMapping.getHandler(new MockHttpServletRequest("GET", requestUri));
+		assertNotNull("No handler for " + requestUri, chain);
+		assertEquals(methodName, ((HandlerMethod) chain.getHandler()).getMethod().getName());
+	}
+
 	private RequestMappingInfo assertComposedAnnotationMapping(RequestMethod requestMethod) throws Exception {
 		String methodName = requestMethod.name().toLowerCase();
 		String path = "/" + methodName;
@@ -271,6 +296,24 @@ public class RequestMappingHandlerMappingTests {
 	}
 
 
+	@Controller
+	@RequestMapping("/api/orders")
+	static class OrderController {
+
+		@GetMapping("/list")
+		public void list() {
+		}
+
+		@GetMapping("/{id}")
+		public void getOrder() {
+		}
+
+		@GetMapping("/{id}/items")
+		public void getItems() {
+		}
+	}
+
+
 	@RestController
 	@RequestMapping("/user")
 	static class UserController {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -336,6 +336,46 @@ public class RequestResponseBodyMethodProcessorTests {
 		assertEquals("text/plain;charset=UTF-8", servletResponse.getHeader("Content-Type"));
 	}
 
+	@Test
+	public void writeConverterSelectionCached() throws Exception {
+		CountingStringHttpMessageConverter stringConverter = new CountingStringHttpMessageConverter();
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(new ByteArrayHttpMessageConverter());
+		converters.add(stringConverter);
+		RequestResponseBodyMethodProcessor processor = new RequestResponseBodyMethodProcessor(converters);
+
+		writeString(processor, "text/plain");
+		int count = stringConverter.canWriteCount;
+		assertTrue(count > 0);
+
+		writeString(processor, "text/plain");
+		writeString(processor, "text/plain;q=0.8");
+		assertEquals("Cache hit expected", count, stringConverter.canWriteCount);
+		assertEquals("text/plain;charset=ISO-8859-1", this.servletResponse.getHeader("Content-Type"));
+
+		writeString(processor, "text/plain;charset=UTF-8");
+		assertEquals("Cache miss expected for another charset", count + 1, stringConverter.canWriteCount);
+		assertEquals("text/plain;charset=UTF-8", this.servletResponse.getHeader("Content-Type"));
+
+		writeString(processor, "text/plain;charset=UTF-8");
+		assertEquals(count + 1, stringConverter.canWriteCount);
+	}
+
+	@Test
+	public void writeConverterSelectionNotCachedForUnknownMediaTypeParameters() throws Exception {
+		CountingStringHttpMessageConverter stringConverter = new CountingStringHttpMessageConverter();
+		RequestResponseBodyMethodProcessor processor =
+				new RequestResponseBodyMethodProcessor(Collections.singletonList(stringConverter));
+
+		writeString(processor, "text/plain;foo=bar");
+		int count = stringConverter.canWriteCount;
+
+		writeString(processor, "text/plain;foo=bar");
+		writeString(processor, "text/plain;foo=baz");
+		assertEquals(count + 2, stringConverter.canWriteCount);
+		assertEquals("Foo", this.servletResponse.getContentAsString());
+	}
+
 	// SPR-12894
 
 	@Test
@@ -729,6 +769,15 @@ public class RequestResponseBodyMethodProcessorTests {
 	}
 
 
+	private void writeString(RequestResponseBodyMethodProcessor processor, String accept) throws Exception {
+		this.servletRequest = new MockHttpServletRequest();
+		this.servletRequest.addHeader("Accept", accept);
+		this.servletResponse = new MockHttpServletResponse();
+		this.request = new ServletWebRequest(this.servletRequest, this.servletResponse);
+		processor.writeWithMessageConverters("Foo", this.returnTypeString, this.request);
+	}
+
+
 	String handle(
 			@RequestBody List<SimpleBean> list,
 			@RequestBody SimpleBean simpleBean,
@@ -1044,6 +1093,18 @@ public class RequestResponseBodyMethodProcessorTests {
 	}
 
 
+	private static class CountingStringHttpMessageConverter extends StringHttpMessageConverter {
+
+		int canWriteCount;
+
+		@Override
+		public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+			this.canWriteCount++;
+			return super.canWrite(clazz, mediaType);
+		}
+	}
+
+
 	interface MappingInterface<A> {
 
 		default A handle(@RequestBody A arg) {
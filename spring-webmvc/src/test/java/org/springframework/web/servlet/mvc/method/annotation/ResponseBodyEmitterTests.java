@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -116,6 +118,37 @@ public class ResponseBodyEmitterTests {
 		verifyNoMoreInteractions(this.handler);
 	}
 
+	@Test
+	public void sendBatchAfterHandlerInitialized() throws Exception {
+		this.emitter.initialize(this.handler);
+
+		Set<ResponseBodyEmitter.DataWithMediaType> items = new LinkedHashSet<>();
+		items.add(new ResponseBodyEmitter.DataWithMediaType("foo", MediaType.TEXT_PLAIN));
+		items.add(new ResponseBodyEmitter.DataWithMediaType("bar", MediaType.TEXT_PLAIN));
+		this.emitter.send(items);
+		this.emitter.complete();
+
+		verify(this.handler).send(items);
+		verify(this.handler, never()).send(any(), any());
+		verify(this.handler).complete();
+	}
+
+	@Test
+	public void sendBatchBeforeHandlerInitialized() throws Exception {
+		Set<ResponseBodyEmitter.DataWithMediaType> items = new LinkedHashSet<>();
+		items.add(new ResponseBodyEmitter.DataWithMediaType("foo", MediaType.TEXT_PLAIN));
+		items.add(new ResponseBodyEmitter.DataWithMediaType("bar", MediaType.TEXT_PLAIN));
+		this.emitter.send(items);
+		this.emitter.complete();
+		verifyNoMoreInteractions(this.handler);
+
+		this.emitter.initialize(this.handler);
+		verify(this.handler).send("foo", MediaType.TEXT_PLAIN);
+		verify(this.handler).send("bar", MediaType.TEXT_PLAIN);
+		verify(this.handler).complete();
+		verifyNoMoreInteractions(this.handler);
+	}
+
 	@Test
 	public void sendAfterHandlerInitializedWithError() throws Exception {
 		this.emitter.initialize(this.handler);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.servlet.resource;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -29,6 +30,7 @@ import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.util.FileCopyUtils;
 
 import static org.junit.Assert.*;
 
@@ -167,6 +169,37 @@ public class CachingResourceResolverTests {
 		assertSame(gzipped, this.chain.resolveResource(request, "bar.css", this.locations));
 	}
 
+	@Test
+	public void resolveResourceWithContentCache() throws IOException {
+		CachingResourceResolver resolver = new CachingResourceResolver(this.cache);
+		resolver.setContentCacheLimit(1024);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(resolver, new PathResourceResolver()));
+
+		Resource original = new ClassPathResource("test/bar.css", getClass());
+		Resource actual = chain.resolveResource(null, "bar.css", this.locations);
+
+		assertTrue(actual instanceof HttpResource);
+		assertSame(actual, this.cache.get(resourceKey("bar.css")).get());
+		assertArrayEquals(FileCopyUtils.copyToByteArray(original.getInputStream()),
+				FileCopyUtils.copyToByteArray(actual.getInputStream()));
+		assertEquals(original.getFilename(), actual.getFilename());
+		assertEquals(original.lastModified(), actual.lastModified());
+		assertNotNull(((HttpResource) actual).getResponseHeaders().getETag());
+	}
+
+	@Test
+	public void resolveResourceExceedingContentCacheLimit() {
+		CachingResourceResolver resolver = new CachingResourceResolver(this.cache);
+		resolver.setContentCacheLimit(1);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(resolver, new PathResourceResolver()));
+
+		Resource actual = chain.resolveResource(null, "bar.css", this.locations);
+
+		assertEquals(new ClassPathResource("test/bar.css", getClass()), actual);
+	}
+
 	private static String resourceKey(String key) {
 		return CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + key;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -150,6 +150,21 @@ public class ResourceHttpRequestHandlerTests {
 		assertEquals(1, this.response.getHeaders("Accept-Ranges").size());
 	}
 
+	@Test
+	public void getVersionedResourceWithMatchingETag() throws Exception {
+		VersionResourceResolver versionResolver = new VersionResourceResolver()
+				.addFixedVersionStrategy("versionString", "/**");
+		this.handler.setResourceResolvers(Arrays.asList(versionResolver, new PathResourceResolver()));
+		this.handler.afterPropertiesSet();
+
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "versionString/foo.css");
+		this.request.addHeader("If-None-Match", "\"versionString\"");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, this.response.getStatus());
+		assertEquals(0, this.response.getContentAsByteArray().length);
+	}
+
 	@Test
 	@SuppressWarnings("deprecation")
 	public void getResourceHttp10BehaviorCache() throws Exception {